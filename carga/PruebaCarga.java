@@ -0,0 +1,88 @@
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Prueba de carga para comparar el modo de hilos de plataforma con el perfil "virtual".
+// Programa de un solo archivo, se ejecuta sin compilar con Java 21:
+//
+//   java carga/PruebaCarga.java <url> [conexiones] [segundos]
+//
+// Cada conexión es un hilo virtual del cliente que repite la petición hasta que termina
+// el tiempo. Al final informa peticiones por segundo, errores y latencias p50, p99 y máxima.
+public class PruebaCarga {
+
+	public static void main(String[] args) throws Exception {
+		if (args.length < 1) {
+			System.out.println("Uso: java carga/PruebaCarga.java <url> [conexiones] [segundos]");
+			return;
+		}
+		URI url = URI.create(args[0]);
+		int conexiones = args.length > 1 ? Integer.parseInt(args[1]) : 1000;
+		int segundos = args.length > 2 ? Integer.parseInt(args[2]) : 30;
+
+		HttpClient cliente = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1)
+				.connectTimeout(Duration.ofSeconds(10)).executor(Executors.newVirtualThreadPerTaskExecutor())
+				.build();
+		HttpRequest peticion = HttpRequest.newBuilder(url).timeout(Duration.ofSeconds(60)).GET().build();
+		long fin = System.nanoTime() + Duration.ofSeconds(segundos).toNanos();
+		AtomicLong errores = new AtomicLong();
+		List<long[]> latenciasPorConexion = new ArrayList<>();
+
+		long inicio = System.nanoTime();
+		try (ExecutorService hilos = Executors.newVirtualThreadPerTaskExecutor()) {
+			for (int i = 0; i < conexiones; i++) {
+				long[][] propias = { new long[1024] };
+				int[] cantidad = { 0 };
+				synchronized (latenciasPorConexion) {
+					latenciasPorConexion.add(null);
+				}
+				int indice = i;
+				hilos.submit(() -> {
+					while (System.nanoTime() < fin) {
+						long t0 = System.nanoTime();
+						try {
+							HttpResponse<Void> respuesta = cliente.send(peticion, HttpResponse.BodyHandlers.discarding());
+							if (respuesta.statusCode() >= 400) {
+								errores.incrementAndGet();
+							}
+						} catch (Exception e) {
+							errores.incrementAndGet();
+						}
+						if (cantidad[0] == propias[0].length) {
+							propias[0] = Arrays.copyOf(propias[0], cantidad[0] * 2);
+						}
+						propias[0][cantidad[0]++] = System.nanoTime() - t0;
+					}
+					synchronized (latenciasPorConexion) {
+						latenciasPorConexion.set(indice, Arrays.copyOf(propias[0], cantidad[0]));
+					}
+				});
+			}
+		}
+		double duracion = (System.nanoTime() - inicio) / 1e9;
+
+		long[] latencias = latenciasPorConexion.stream().flatMapToLong(Arrays::stream).sorted().toArray();
+		if (latencias.length == 0) {
+			System.out.println("Sin peticiones completadas");
+			return;
+		}
+		System.out.printf("url=%s conexiones=%d duracion=%.1fs%n", url, conexiones, duracion);
+		System.out.printf("peticiones=%d errores=%d rendimiento=%.1f pet/s%n", latencias.length, errores.get(),
+				latencias.length / duracion);
+		System.out.printf("latencia p50=%.1fms p99=%.1fms max=%.1fms%n", percentil(latencias, 0.50),
+				percentil(latencias, 0.99), latencias[latencias.length - 1] / 1e6);
+	}
+
+	private static double percentil(long[] ordenadas, double p) {
+		int posicion = (int) Math.ceil(p * ordenadas.length) - 1;
+		return ordenadas[Math.max(posicion, 0)] / 1e6;
+	}
+}
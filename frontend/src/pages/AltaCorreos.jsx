@@ -1,6 +1,7 @@
 import React, { useState } from 'react'
 import FormCard from '../components/FormCard'
 import Notification from '../components/Notification'
+import { leerRespuesta } from '../respuestas'
 
 // Use Vite dev server proxy during development. Calls to /api will be proxied to backend.
 const BASE = '/api'
@@ -9,28 +10,36 @@ export default function AltaCorreos() {
   const [dni, setDni] = useState('')
   const [correo, setCorreo] = useState('')
   const [respuesta, setRespuesta] = useState('')
+  const [fallo, setFallo] = useState(false)
 
   const handleSubmit = async (e) => {
     e.preventDefault()
     if (!dni || !correo) {
+      setFallo(true)
       setRespuesta('Completa todos los campos')
       return
     }
     // simple email validation
     const emailRe = /^[^\s@]+@[^\s@]+\.[^\s@]+$/
     if (!emailRe.test(correo)) {
+      setFallo(true)
       setRespuesta('El correo no tiene formato válido')
       return
     }
     const url = `${BASE}/correos/guardar/${encodeURIComponent(dni)}/${encodeURIComponent(correo)}`
     try {
+  setFallo(false)
   setRespuesta('Guardando...')
   const res = await fetch(url)
-  const text = await res.text()
+  const text = await leerRespuesta(res, `DNI ${dni}`)
+  setFallo(!res.ok)
   setRespuesta(text)
-  setDni('')
-  setCorreo('')
+  if (res.ok) {
+    setDni('')
+    setCorreo('')
+  }
     } catch (err) {
+  setFallo(true)
   setRespuesta('Error de red: ' + err.message)
     }
   }
@@ -88,6 +97,7 @@ export default function AltaCorreos() {
                   setDni('')
                   setCorreo('')
                   setRespuesta('')
+                  setFallo(false)
                 }}
               >
                 <i className="bi bi-x-circle me-1"></i>
@@ -103,6 +113,7 @@ export default function AltaCorreos() {
 
         {respuesta && (
           <Notification type={
+            fallo ||
             respuesta.toLowerCase().includes('error') || 
             respuesta.toLowerCase().includes('completa') || 
             respuesta.toLowerCase().includes('válido') ||
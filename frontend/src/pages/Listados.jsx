@@ -1,6 +1,7 @@
 import React, { useEffect, useState } from 'react'
 import FormCard from '../components/FormCard'
 import Notification from '../components/Notification'
+import { leerRespuesta } from '../respuestas'
 
 // Use Vite dev server proxy during development. Calls to /api will be proxied to backend.
 const BASE = '/api'
@@ -65,7 +66,7 @@ export default function Listados() {
     if (!confirm('¿Eliminar este correo?')) return
     try {
       const res = await fetch(`${BASE}/correos/borrar/${encodeURIComponent(id)}`, { method: 'DELETE' })
-      const text = await res.text()
+      const text = await leerRespuesta(res, `idCorreo ${id}`)
       setMsg(text)
       refresh()
     } catch (e) {
@@ -0,0 +1,13 @@
+// Text to show for a backend response. Successful responses are plain text; errors
+// (4xx/5xx) come as JSON { codigo, estado, mensaje }, so show the message plus the
+// value the user asked for (the error body does not repeat it).
+export async function leerRespuesta(res, dato) {
+  if (res.ok) return res.text()
+  let mensaje = res.statusText
+  try {
+    mensaje = (await res.json()).mensaje || mensaje
+  } catch (e) {
+    // Not JSON: keep the HTTP status text
+  }
+  return `Error ${res.status}: ${mensaje}` + (dato ? ` (${dato})` : '')
+}
@@ -0,0 +1,91 @@
+package app.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.boot.Banner;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import app.AppClienteCorreoApplication;
+
+// Contexto de Spring para los benchmarks: la aplicación completa sin servidor web,
+// sobre una base H2 en memoria (modo MySQL) en lugar de MySQL.
+// Con -Dbenchmark.url=jdbc:mysql://... (y benchmark.usuario, benchmark.clave) se usa esa base
+// de MySQL, necesaria para medir los ajustes del driver (ver RepositorioCorreosBenchmark).
+final class ContextoBenchmark {
+
+	// Correos por cliente en los datos de prueba
+	static final int CORREOS_POR_CLIENTE = 10;
+	private static final int FILAS_POR_LOTE = 10_000;
+	private static final String PROPIEDAD_URL = "benchmark.url";
+
+	private ContextoBenchmark() {
+	}
+
+	static ConfigurableApplicationContext iniciar(String baseDeDatos, String... argumentos) {
+		List<String> todos = new ArrayList<>(List.of(
+				// Como argumentos de línea de comandos, para que prevalezcan sobre application.properties
+				// Esquema recreado por Hibernate en cada contexto, sin las migraciones de Flyway
+				"--spring.flyway.enabled=false",
+				"--spring.jpa.hibernate.ddl-auto=create",
+				"--spring.jpa.show-sql=false",
+				// Se mide el acceso a la base de datos, no la caché
+				"--spring.cache.type=none",
+				"--app.cache-correos.capacidad=0",
+				"--app.cambios.habilitado=false",
+				"--logging.level.root=WARN"));
+		String url = System.getProperty(PROPIEDAD_URL);
+		if (url == null) {
+			todos.add("--spring.datasource.url=jdbc:h2:mem:" + baseDeDatos + ";MODE=MySQL;DB_CLOSE_DELAY=-1");
+			todos.add("--spring.datasource.username=sa");
+			todos.add("--spring.datasource.password=");
+			todos.add("--spring.datasource.driver-class-name=org.h2.Driver");
+		} else {
+			// Base de MySQL de pruebas: ddl-auto=create borra y vuelve a crear las tablas
+			todos.add("--spring.datasource.url=" + url);
+			todos.add("--spring.datasource.username=" + System.getProperty("benchmark.usuario", "root"));
+			todos.add("--spring.datasource.password=" + System.getProperty("benchmark.clave", ""));
+		}
+		todos.addAll(List.of(argumentos));
+		return new SpringApplicationBuilder(AppClienteCorreoApplication.class)
+				.web(WebApplicationType.NONE)
+				.bannerMode(Banner.Mode.OFF)
+				.logStartupInfo(false)
+				.run(todos.toArray(String[]::new));
+	}
+
+	// Inserta "correos" filas en correo y correos / CORREOS_POR_CLIENTE filas en cliente.
+	// Devuelve los DNI generados.
+	static String[] cargarDatos(JdbcTemplate jdbc, int correos) {
+		int clientes = Math.max(correos / CORREOS_POR_CLIENTE, 1);
+		String[] dnis = new String[clientes];
+		List<Object[]> lote = new ArrayList<>(FILAS_POR_LOTE);
+		for (int i = 0; i < clientes; i++) {
+			dnis[i] = String.valueOf(10_000_000 + i);
+			lote.add(new Object[] { dnis[i], "Nombre" + i, "Apellido" + i });
+			if (lote.size() == FILAS_POR_LOTE) {
+				jdbc.batchUpdate("insert into cliente (dni, nombre, apellido) values (?, ?, ?)", lote);
+				lote.clear();
+			}
+		}
+		if (!lote.isEmpty()) {
+			jdbc.batchUpdate("insert into cliente (dni, nombre, apellido) values (?, ?, ?)", lote);
+			lote.clear();
+		}
+		for (int i = 1; i <= correos; i++) {
+			String dni = dnis[i % clientes];
+			lote.add(new Object[] { i, "usuario" + i + "@dominio" + (i % 100) + ".com", dni });
+			if (lote.size() == FILAS_POR_LOTE) {
+				jdbc.batchUpdate("insert into correo (id_correo, correo, cliente06dnifk) values (?, ?, ?)", lote);
+				lote.clear();
+			}
+		}
+		if (!lote.isEmpty()) {
+			jdbc.batchUpdate("insert into correo (id_correo, correo, cliente06dnifk) values (?, ?, ?)", lote);
+		}
+		return dnis;
+	}
+}
@@ -0,0 +1,82 @@
+package app.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import app.controladores.GlobalExceptionHandler;
+import app.dto.RespuestaError;
+import app.excepciones.ErrorControlado;
+import app.servicios.ServiciosCorreo;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+// Construcción de las respuestas de error de GlobalExceptionHandler, incluida la creación
+// de la excepción. Ejecutar con "-prof gc" para ver la memoria asignada por petición fallida
+// (gc.alloc.rate.norm): idCorreoInvalido es el camino anterior, con Integer.parseInt y su
+// NumberFormatException; idCorreoInvalidoControlado el actual, con ErrorControlado.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class GlobalExceptionHandlerBenchmark {
+
+	// Valor de app.usuario.desarrollo: "desarrollo" agrega la pila de llamadas a la respuesta
+	@Param({ "produccion", "desarrollo" })
+	private String usuario;
+
+	private GlobalExceptionHandler manejador;
+
+	@Setup
+	public void iniciar() {
+		manejador = new GlobalExceptionHandler();
+		ReflectionTestUtils.setField(manejador, "miVariableEntorno",
+				new MockEnvironment().withProperty("app.usuario.desarrollo", usuario));
+		ReflectionTestUtils.setField(manejador, "registro", new SimpleMeterRegistry());
+		// Se mide la respuesta, no el log del error inesperado
+		((Logger) LoggerFactory.getLogger(GlobalExceptionHandler.class)).setLevel(Level.OFF);
+	}
+
+	// idCorreo inválido: Integer.parseInt falla como en ServiciosCorreo.buscarPorId
+	@Benchmark
+	public ResponseEntity<RespuestaError> idCorreoInvalido() {
+		try {
+			return ResponseEntity.ok(new RespuestaError("OK", 200, String.valueOf(Integer.parseInt("abc"))));
+		} catch (NumberFormatException e) {
+			return manejador.handleNumberFormat(e);
+		}
+	}
+
+	// idCorreo inválido con ServiciosCorreo.idCorreo: excepción constante y sin pila
+	@Benchmark
+	public ResponseEntity<RespuestaError> idCorreoInvalidoControlado() {
+		try {
+			return ResponseEntity.ok(new RespuestaError("OK", 200, String.valueOf(ServiciosCorreo.idCorreo("abc"))));
+		} catch (ErrorControlado e) {
+			return manejador.handleErrorControlado(e);
+		}
+	}
+
+	@Benchmark
+	public ResponseEntity<RespuestaError> excepcionGenerica() {
+		return manejador.handleGenericException(new IllegalStateException("Error de prueba"));
+	}
+}
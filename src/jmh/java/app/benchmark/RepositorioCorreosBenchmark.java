@@ -0,0 +1,112 @@
+package app.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import app.config.SecuenciaCorreoConfig;
+import app.entidades.Cliente06;
+import app.entidades.Correo06;
+import app.repositorios.CorreosRepositorio;
+import jakarta.persistence.EntityManager;
+
+// Inserts por lotes y búsquedas de CorreosRepositorio con la configuración por defecto ("base")
+// y con el perfil "produccion" (pool fijo, lotes de 100, INSERT y UPDATE ordenados, caché de
+// planes y los ajustes del driver de MySQL). Resultado en filas (o búsquedas) por segundo.
+// Sobre H2 solo se comparan los ajustes de Hibernate; los del driver (sentencias preparadas en
+// el servidor, rewriteBatchedStatements, estado de sesión local) se miden contra MySQL:
+//   -Dbenchmark.url=jdbc:mysql://localhost:3306/benchmark?useCursorFetch=true
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+public class RepositorioCorreosBenchmark {
+
+	// Correos por transacción en insertarLote
+	private static final int LOTE = 1000;
+
+	@Param({ "base", "produccion" })
+	private String perfil;
+
+	@Param({ "100000" })
+	private int filas;
+
+	private ConfigurableApplicationContext contexto;
+	private CorreosRepositorio correosRepositorio;
+	private EntityManager entityManager;
+	private TransactionTemplate transaccion;
+	private String[] dnis;
+	private int siguiente;
+	private long insertados;
+
+	@Setup(Level.Trial)
+	public void iniciar() throws Exception {
+		contexto = perfil.equals("base") ? ContextoBenchmark.iniciar("repositorio" + perfil)
+				: ContextoBenchmark.iniciar("repositorio" + perfil, "--spring.profiles.active=" + perfil);
+		dnis = ContextoBenchmark.cargarDatos(contexto.getBean(JdbcTemplate.class), filas);
+		// Los datos se cargaron con idCorreo explícitos: la secuencia sigue por encima del máximo
+		contexto.getBean(SecuenciaCorreoConfig.class).afterPropertiesSet();
+		correosRepositorio = contexto.getBean(CorreosRepositorio.class);
+		entityManager = contexto.getBean(EntityManager.class);
+		transaccion = contexto.getBean(TransactionTemplate.class);
+	}
+
+	@TearDown(Level.Trial)
+	public void cerrar() {
+		contexto.close();
+	}
+
+	private int proximo() {
+		siguiente = (siguiente + 7919) % filas;
+		return siguiente + 1;
+	}
+
+	// Alta de LOTE correos nuevos en una transacción, como ServiciosCorreo.guardarLote
+	@Benchmark
+	@OperationsPerInvocation(LOTE)
+	public List<Correo06> insertarLote() {
+		return transaccion.execute(estado -> {
+			List<Correo06> lote = new ArrayList<>(LOTE);
+			for (int i = 0; i < LOTE; i++) {
+				long numero = ++insertados;
+				Cliente06 cliente = entityManager.getReference(Cliente06.class, dnis[(int) (numero % dnis.length)]);
+				lote.add(new Correo06("nuevo" + numero + "@benchmark.com", cliente));
+			}
+			return correosRepositorio.saveAll(lote);
+		});
+	}
+
+	// Búsqueda por clave primaria con el cliente (una conexión y una consulta por llamada)
+	@Benchmark
+	public Optional<Correo06> buscarPorId() {
+		return correosRepositorio.findConClienteByIdCorreo(proximo());
+	}
+
+	// Existencia por el índice único de la columna correo
+	@Benchmark
+	public boolean existeCorreo() {
+		int id = proximo();
+		return correosRepositorio.existsByCorreo("usuario" + id + "@dominio" + (id % 100) + ".com");
+	}
+}
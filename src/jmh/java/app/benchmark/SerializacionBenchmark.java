@@ -0,0 +1,109 @@
+package app.benchmark;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import app.dto.ClientesCorreos;
+import app.entidades.Correo06;
+import app.servicios.ServiciosCorreo;
+
+// Serialización con Jackson de la respuesta de /correos/listartodos y /correos/verclientescorreos:
+// - serializarCorreosConCliente: List<Correo06> con el Cliente06 anidado en cada correo.
+// - serializarNormalizado*: ClientesCorreos (cada cliente una vez), en JSON, CBOR, Smile y JSON con gzip.
+// El tamaño de cada formato se imprime al iniciar (líneas "bytes ...").
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+public class SerializacionBenchmark {
+
+	@Param({ "10000", "100000", "1000000" })
+	private int filas;
+
+	private ConfigurableApplicationContext contexto;
+	private ObjectMapper objectMapper;
+	private List<Correo06> correos;
+	private ObjectMapper cbor;
+	private ObjectMapper smile;
+
+	@Setup(Level.Trial)
+	public void iniciar() {
+		contexto = ContextoBenchmark.iniciar("serializacion" + filas);
+		ContextoBenchmark.cargarDatos(contexto.getBean(JdbcTemplate.class), filas);
+		objectMapper = contexto.getBean(ObjectMapper.class);
+		correos = contexto.getBean(ServiciosCorreo.class).listarCorreosConClientes();
+		cbor = contexto.getBean(MappingJackson2CborHttpMessageConverter.class).getObjectMapper();
+		smile = contexto.getBean(MappingJackson2SmileHttpMessageConverter.class).getObjectMapper();
+		try {
+			System.out.println("bytes JSON anidado: " + serializarCorreosConCliente().length);
+			System.out.println("bytes JSON normalizado: " + serializarNormalizado().length);
+			System.out.println("bytes CBOR normalizado: " + serializarNormalizadoCbor().length);
+			System.out.println("bytes Smile normalizado: " + serializarNormalizadoSmile().length);
+			System.out.println("bytes JSON normalizado gzip: " + serializarNormalizadoGzip().length);
+		} catch (IOException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	@TearDown(Level.Trial)
+	public void cerrar() {
+		contexto.close();
+	}
+
+	@Benchmark
+	public byte[] serializarCorreosConCliente() throws JsonProcessingException {
+		return objectMapper.writeValueAsBytes(correos);
+	}
+
+	// Incluye la normalización (agrupar los clientes por dni)
+	@Benchmark
+	public byte[] serializarNormalizado() throws JsonProcessingException {
+		return objectMapper.writeValueAsBytes(ClientesCorreos.de(correos));
+	}
+
+	@Benchmark
+	public byte[] serializarNormalizadoCbor() throws JsonProcessingException {
+		return cbor.writeValueAsBytes(ClientesCorreos.de(correos));
+	}
+
+	@Benchmark
+	public byte[] serializarNormalizadoSmile() throws JsonProcessingException {
+		return smile.writeValueAsBytes(ClientesCorreos.de(correos));
+	}
+
+	// Lo que hace server.compression con la respuesta JSON normalizada
+	@Benchmark
+	public byte[] serializarNormalizadoGzip() throws IOException {
+		ByteArrayOutputStream salida = new ByteArrayOutputStream();
+		try (GZIPOutputStream gzip = new GZIPOutputStream(salida)) {
+			objectMapper.writeValue(gzip, ClientesCorreos.de(correos));
+		}
+		return salida.toByteArray();
+	}
+}
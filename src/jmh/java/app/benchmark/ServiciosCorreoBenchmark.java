@@ -0,0 +1,75 @@
+package app.benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import app.entidades.Correo06;
+import app.repositorios.CorreosRepositorio;
+import app.servicios.ServiciosCorreo;
+
+// Búsqueda de correos por DNI: consulta indexada del repositorio (ServiciosCorreo.listarPorDni)
+// contra el filtrado en memoria de findAll() que se usaba antes.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+public class ServiciosCorreoBenchmark {
+
+	@Param({ "10000", "100000", "1000000" })
+	private int filas;
+
+	private ConfigurableApplicationContext contexto;
+	private ServiciosCorreo serviciosCorreo;
+	private CorreosRepositorio correosRepositorio;
+	private String[] dnis;
+	private int siguiente;
+
+	@Setup(Level.Trial)
+	public void iniciar() {
+		contexto = ContextoBenchmark.iniciar("servicios" + filas);
+		dnis = ContextoBenchmark.cargarDatos(contexto.getBean(JdbcTemplate.class), filas);
+		serviciosCorreo = contexto.getBean(ServiciosCorreo.class);
+		correosRepositorio = contexto.getBean(CorreosRepositorio.class);
+	}
+
+	@TearDown(Level.Trial)
+	public void cerrar() {
+		contexto.close();
+	}
+
+	private String proximoDni() {
+		siguiente = (siguiente + 1) % dnis.length;
+		return dnis[siguiente];
+	}
+
+	@Benchmark
+	public List<Correo06> listarPorDniConsultaIndexada() {
+		return serviciosCorreo.listarPorDni(proximoDni());
+	}
+
+	@Benchmark
+	public List<Correo06> listarPorDniFiltroEnMemoria() {
+		String dni = proximoDni();
+		return correosRepositorio.findAll().stream()
+				.filter(correo -> correo.getCliente06() != null && correo.getCliente06().getDni().equals(dni))
+				.toList();
+	}
+}
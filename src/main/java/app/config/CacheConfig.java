@@ -0,0 +1,17 @@
+package app.config;
+
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Configuration;
+
+// Caché local de lecturas frecuentes (clientes por DNI y correos por DNI).
+// El proveedor y el tamaño se configuran en application.properties (spring.cache.*):
+// con spring.cache.type=none se desactiva sin tocar el código.
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+	// Nombres de las cachés usadas en los servicios
+	public static final String CLIENTES = "clientes";
+	public static final String CORREOS_POR_DNI = "correosPorDni";
+
+}
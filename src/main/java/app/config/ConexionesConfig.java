@@ -0,0 +1,41 @@
+package app.config;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+// Pool de conexiones principal (spring.datasource.* y spring.datasource.hikari.*) detrás de un
+// LazyConnectionDataSourceProxy: una transacción toma una conexión del pool recién en su primera
+// sentencia SQL, no al empezar.
+// Los idCorreo salen de la tabla correo_secuencia (ver Correo06), que Hibernate actualiza con
+// otra conexión. Si cada alta tuviera su conexión desde el inicio de la transacción, con tantas
+// altas simultáneas como conexiones el pool se agotaría: todas esperando la conexión que necesita
+// el generador de ids, hasta el connection-timeout. Con el proxy, el alta no tiene conexión
+// cuando se genera el id (el INSERT se ejecuta después, al hacer commit).
+// Con réplica de lectura el proxy envuelve al DataSource que enruta (ver ReplicaConfig).
+@Configuration
+public class ConexionesConfig {
+
+	@Bean
+	@ConfigurationProperties("spring.datasource.hikari")
+	public HikariDataSource datosPrimaria(DataSourceProperties propiedades) {
+		return propiedades.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+	}
+
+	// El DataSource que usan JPA, JdbcTemplate y Flyway (sin réplica de lectura)
+	@Bean
+	@Primary
+	@ConditionalOnProperty(name = "app.replica.habilitada", havingValue = "false", matchIfMissing = true)
+	public DataSource dataSource(@Qualifier("datosPrimaria") DataSource primaria) {
+		return new LazyConnectionDataSourceProxy(primaria);
+	}
+}
@@ -0,0 +1,39 @@
+package app.config;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import app.servicios.RegistroConsultasLentas;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+
+// Envuelve el DataSource (Hikari) con datasource-proxy para medir cada sentencia
+// y pasarla a RegistroConsultasLentas.
+// Con réplica (ver ReplicaConfig) se envuelve cada pool, no el DataSource que los enruta:
+// cada sentencia se mide una sola vez, con el nombre del pool que la ejecutó.
+@Configuration
+public class ConsultasLentasConfig {
+
+	// static: los BeanPostProcessor se crean antes que el resto de los beans
+	@Bean
+	public static BeanPostProcessor proxyConsultasLentas(ObjectProvider<RegistroConsultasLentas> registro) {
+		return new BeanPostProcessor() {
+			@Override
+			public Object postProcessAfterInitialization(Object bean, String beanName) {
+				if (bean instanceof DataSource dataSource && !(bean instanceof DelegatingDataSource)
+						&& !(bean instanceof AbstractRoutingDataSource)) {
+					return ProxyDataSourceBuilder.create(dataSource)
+							.name(beanName)
+							.listener(registro.getObject())
+							.build();
+				}
+				return bean;
+			}
+		};
+	}
+}
@@ -0,0 +1,56 @@
+package app.config;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+// Cuenta las sentencias SQL que ejecuta Hibernate en cada petición HTTP.
+// Como StatementInspector suma uno por sentencia en un atributo de la petición actual;
+// como HandlerInterceptor, al terminar la petición registra el total en la métrica
+// "sql.sentencias.peticion" con la etiqueta uri (el patrón del mapeo del controlador).
+// Las sentencias fuera de una petición (tareas al iniciar, streaming asíncrono) no se cuentan.
+public class ContadorSentenciasSql implements StatementInspector, HandlerInterceptor {
+
+	private static final long serialVersionUID = 1L;
+	private static final String ATRIBUTO = ContadorSentenciasSql.class.getName() + ".sentencias";
+
+	private final transient MeterRegistry registro;
+
+	public ContadorSentenciasSql(MeterRegistry registro) {
+		this.registro = registro;
+	}
+
+	@Override
+	public String inspect(String sql) {
+		RequestAttributes atributos = RequestContextHolder.getRequestAttributes();
+		if (atributos != null) {
+			int[] sentencias = (int[]) atributos.getAttribute(ATRIBUTO, RequestAttributes.SCOPE_REQUEST);
+			if (sentencias == null) {
+				sentencias = new int[1];
+				atributos.setAttribute(ATRIBUTO, sentencias, RequestAttributes.SCOPE_REQUEST);
+			}
+			sentencias[0]++;
+		}
+		return sql;
+	}
+
+	@Override
+	public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+			Exception ex) {
+		int[] sentencias = (int[]) request.getAttribute(ATRIBUTO);
+		Object uri = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+		DistributionSummary.builder("sql.sentencias.peticion")
+				.description("Sentencias SQL ejecutadas por petición HTTP")
+				.baseUnit("sentencias")
+				.tag("uri", uri == null ? "UNKNOWN" : uri.toString())
+				.register(registro)
+				.record(sentencias == null ? 0 : sentencias[0]);
+	}
+}
@@ -0,0 +1,41 @@
+package app.config;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+
+// Métricas de la aplicación (Micrometer), publicadas en /actuator/prometheus.
+// Spring Boot ya registra las métricas HTTP por mapeo (http.server.requests),
+// las del pool de Hikari (hikaricp.connections.*) y las de las cachés (cache.*).
+// Aquí se agregan los tiempos de los servicios (@Timed) y las sentencias SQL por petición.
+@Configuration
+public class MetricasConfig implements WebMvcConfigurer {
+
+	private final ContadorSentenciasSql contadorSentenciasSql;
+
+	public MetricasConfig(MeterRegistry registro) {
+		this.contadorSentenciasSql = new ContadorSentenciasSql(registro);
+	}
+
+	// Habilita @Timed en los servicios (ServiciosCliente, ServiciosCorreo)
+	@Bean
+	public TimedAspect timedAspect(MeterRegistry registro) {
+		return new TimedAspect(registro);
+	}
+
+	@Bean
+	public HibernatePropertiesCustomizer contadorSentenciasSqlHibernate() {
+		return propiedades -> propiedades.put(AvailableSettings.STATEMENT_INSPECTOR, contadorSentenciasSql);
+	}
+
+	@Override
+	public void addInterceptors(InterceptorRegistry registry) {
+		registry.addInterceptor(contadorSentenciasSql);
+	}
+}
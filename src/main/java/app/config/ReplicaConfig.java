@@ -0,0 +1,69 @@
+package app.config;
+
+import java.util.Map;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+// Réplica de lectura (app.replica.habilitada=true): dos pools de Hikari y un DataSource
+// que enruta cada transacción (ver RuteoDataSource).
+// - primaria: spring.datasource.* y spring.datasource.hikari.*, como sin réplica (ConexionesConfig).
+// - replica: app.replica.datasource.* (jdbc-url, username, password, maximum-pool-size...).
+// Sin la propiedad, el DataSource es solo el pool primario (ver ConexionesConfig).
+@Configuration
+@ConditionalOnProperty(name = "app.replica.habilitada", havingValue = "true")
+public class ReplicaConfig implements WebMvcConfigurer {
+
+	@Bean
+	@ConfigurationProperties("app.replica.datasource")
+	public HikariDataSource datosReplica() {
+		return new HikariDataSource();
+	}
+
+	// El DataSource que usan JPA y JdbcTemplate
+	@Bean
+	@Primary
+	public DataSource dataSource(@Qualifier("datosPrimaria") DataSource primaria,
+			@Qualifier("datosReplica") DataSource replica,
+			@Value("${app.replica.lectura-propia:true}") boolean lecturaPropia) {
+		RuteoDataSource ruteo = new RuteoDataSource(lecturaPropia);
+		ruteo.setTargetDataSources(Map.of(RuteoDataSource.PRIMARIA, primaria, RuteoDataSource.REPLICA, replica));
+		ruteo.setDefaultTargetDataSource(primaria);
+		ruteo.afterPropertiesSet();
+		return new LazyConnectionDataSourceProxy(ruteo);
+	}
+
+	// La lectura propia dura una petición: el hilo puede atender otra después
+	@Override
+	public void addInterceptors(InterceptorRegistry registry) {
+		registry.addInterceptor(new HandlerInterceptor() {
+			@Override
+			public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+				RuteoDataSource.reiniciarLecturaPropia();
+				return true;
+			}
+
+			@Override
+			public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+					Exception ex) {
+				RuteoDataSource.reiniciarLecturaPropia();
+			}
+		});
+	}
+}
@@ -0,0 +1,45 @@
+package app.config;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+// Elige el pool de cada conexión: la réplica para las transacciones de solo lectura
+// (@Transactional(readOnly = true), también las lecturas de Spring Data) y la primaria
+// para todo lo demás (escrituras, trabajo fuera de transacción, inicio de la aplicación).
+// Se usa detrás de un LazyConnectionDataSourceProxy: la conexión se pide en la primera
+// sentencia, cuando la transacción ya está marcada como de solo lectura.
+// Las lecturas cuyo resultado dura más que la petición usan transacciones de escritura y van
+// a la primaria: listados con ETag, cargas de las cachés, construcción de los índices en
+// memoria y validación de duplicados (ver ServiciosCliente y ServiciosCorreo).
+// Lectura propia (opcional): después de una escritura, las lecturas del mismo hilo
+// (la misma petición HTTP) van a la primaria, para no ver datos atrasados de la réplica.
+public class RuteoDataSource extends AbstractRoutingDataSource {
+
+	public static final String PRIMARIA = "primaria";
+	public static final String REPLICA = "replica";
+
+	// true después de una escritura en la petición actual (ver ReplicaConfig)
+	private static final ThreadLocal<Boolean> ESCRIBIO = new ThreadLocal<>();
+
+	private final boolean lecturaPropia;
+
+	public RuteoDataSource(boolean lecturaPropia) {
+		this.lecturaPropia = lecturaPropia;
+	}
+
+	// Al empezar y al terminar cada petición
+	public static void reiniciarLecturaPropia() {
+		ESCRIBIO.remove();
+	}
+
+	@Override
+	protected Object determineCurrentLookupKey() {
+		if (TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+			return lecturaPropia && Boolean.TRUE.equals(ESCRIBIO.get()) ? PRIMARIA : REPLICA;
+		}
+		if (lecturaPropia && TransactionSynchronizationManager.isActualTransactionActive()) {
+			ESCRIBIO.set(Boolean.TRUE);
+		}
+		return PRIMARIA;
+	}
+}
@@ -0,0 +1,51 @@
+package app.config;
+
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import app.entidades.Correo06;
+import jakarta.persistence.EntityManagerFactory;
+
+// Alinea la tabla correo_secuencia con los idCorreo existentes.
+// Los correos creados con la estrategia IDENTITY anterior ya ocupan ids: la secuencia
+// debe continuar por encima del máximo para que los nuevos inserts no choquen con ellos.
+// La tabla la crean las migraciones de Flyway: V1 en una base nueva y V3 en una base creada
+// antes de Flyway (registrada como versión 1 con baseline-on-migrate, sin ejecutar V1).
+// Se ejecuta al iniciar, después de las migraciones y de que Hibernate valide el esquema,
+// y sube el valor por encima del máximo idCorreo.
+@Configuration
+public class SecuenciaCorreoConfig implements InitializingBean {
+
+	public SecuenciaCorreoConfig() {
+		// Constructor vacío
+	}
+	@Autowired
+	private EntityManagerFactory entityManagerFactory; // Garantiza que las migraciones ya se aplicaron
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Override
+	public void afterPropertiesSet() {
+		var entityManager = entityManagerFactory.createEntityManager();
+		long maximo;
+		try {
+			maximo = entityManager.createQuery("select coalesce(max(c.idCorreo), 0) from Correo06 c", Integer.class)
+					.getSingleResult();
+		} finally {
+			entityManager.close();
+		}
+		// El optimizador "pooled" puede entregar ids hasta ALLOCATION_SIZE por debajo del valor guardado
+		long minimo = maximo + Correo06.ALLOCATION_SIZE + 1;
+		int actualizadas = jdbcTemplate.update(
+				"update correo_secuencia set siguiente = ? where nombre = 'correo' and siguiente < ?", minimo, minimo);
+		if (actualizadas == 0) {
+			Integer existe = jdbcTemplate.queryForObject(
+					"select count(*) from correo_secuencia where nombre = 'correo'", Integer.class);
+			if (existe == null || existe == 0) {
+				jdbcTemplate.update("insert into correo_secuencia (nombre, siguiente) values ('correo', ?)", minimo);
+			}
+		}
+	}
+}
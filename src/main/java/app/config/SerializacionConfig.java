@@ -0,0 +1,27 @@
+package app.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+// Formatos binarios opcionales de las respuestas, elegidos por la cabecera Accept:
+// - application/cbor (CBOR)
+// - application/x-jackson-smile (Smile)
+// JSON sigue siendo el formato por defecto (Accept ausente o */*).
+// Se construyen con el Jackson2ObjectMapperBuilder de Spring Boot, con la misma
+// configuración (spring.jackson.*) que el ObjectMapper de JSON.
+@Configuration
+public class SerializacionConfig {
+
+	@Bean
+	public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+		return new MappingJackson2CborHttpMessageConverter(builder.cbor().build());
+	}
+
+	@Bean
+	public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+		return new MappingJackson2SmileHttpMessageConverter(builder.smile().build());
+	}
+}
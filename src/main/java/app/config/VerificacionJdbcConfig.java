@@ -0,0 +1,82 @@
+package app.config;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import com.mysql.cj.conf.PropertyKey;
+import com.mysql.cj.conf.PropertySet;
+import com.mysql.cj.jdbc.JdbcConnection;
+
+// Verificación al iniciar (app.jdbc.verificar=true, ver el perfil "produccion"):
+// en cada pool de MySQL se abre una conexión y se leen los valores que el driver tomó
+// realmente (de la URL o de data-source-properties). Si falta alguno de los ajustes de
+// rendimiento, o los lotes de Hibernate están desactivados, la aplicación no inicia.
+// Los pools de otras bases (H2 en los benchmarks) no se verifican.
+@Configuration
+@ConditionalOnProperty(name = "app.jdbc.verificar", havingValue = "true")
+public class VerificacionJdbcConfig {
+
+	private static final Logger LOG = LoggerFactory.getLogger(VerificacionJdbcConfig.class);
+	// Propiedades del driver que deben estar activas
+	private static final List<PropertyKey> REQUERIDAS = List.of(PropertyKey.useServerPrepStmts,
+			PropertyKey.cachePrepStmts, PropertyKey.rewriteBatchedStatements, PropertyKey.useLocalSessionState);
+
+	@Bean
+	public SmartInitializingSingleton verificacionJdbc(ApplicationContext contexto,
+			@Value("${spring.jpa.properties.hibernate.jdbc.batch_size:0}") int tamanioLote) {
+		return () -> {
+			if (tamanioLote <= 1) {
+				throw new IllegalStateException(
+						"spring.jpa.properties.hibernate.jdbc.batch_size debe ser mayor a 1: " + tamanioLote);
+			}
+			// Solo los pools: no el DataSource que los enruta ni su proxy (ver ConexionesConfig y ReplicaConfig)
+			for (Map.Entry<String, DataSource> entrada : contexto.getBeansOfType(DataSource.class).entrySet()) {
+				DataSource dataSource = entrada.getValue();
+				if (!(dataSource instanceof DelegatingDataSource) && !(dataSource instanceof AbstractRoutingDataSource)) {
+					verificar(entrada.getKey(), dataSource);
+				}
+			}
+		};
+	}
+
+	private static void verificar(String nombre, DataSource dataSource) {
+		try (Connection conexion = dataSource.getConnection()) {
+			if (!conexion.isWrapperFor(JdbcConnection.class)) {
+				return;
+			}
+			PropertySet propiedades = conexion.unwrap(JdbcConnection.class).getPropertySet();
+			List<String> faltantes = new ArrayList<>();
+			for (PropertyKey clave : REQUERIDAS) {
+				if (!propiedades.getBooleanProperty(clave).getValue()) {
+					faltantes.add(clave.getKeyName());
+				}
+			}
+			if (!faltantes.isEmpty()) {
+				throw new IllegalStateException("El pool " + nombre + " no tiene activas las propiedades del driver "
+						+ faltantes + " (ver application-produccion.properties)");
+			}
+			LOG.info("Pool {}: sentencias preparadas en el servidor con caché de {} (hasta {} caracteres), "
+					+ "lotes reescritos y estado de sesión local", nombre,
+					propiedades.getIntegerProperty(PropertyKey.prepStmtCacheSize).getValue(),
+					propiedades.getIntegerProperty(PropertyKey.prepStmtCacheSqlLimit).getValue());
+		} catch (SQLException e) {
+			throw new IllegalStateException("No se pudo verificar la conexión del pool " + nombre, e);
+		}
+	}
+}
@@ -0,0 +1,47 @@
+package app.controladores;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.CacheManager;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+
+////////////////////////////////////
+//// Controlador REST para consultar el estado de las cachés locales
+@RestController
+@RequestMapping("/cache")
+public class CacheControlador {
+
+	public CacheControlador() {
+		// Constructor vacío
+	}
+	@Autowired
+	private CacheManager cacheManager;
+
+	// Aciertos, fallos y desalojos de cada caché (requiere recordStats en spring.cache.caffeine.spec)
+	@GetMapping("/estadisticas")
+	public Map<String, Map<String, Object>> estadisticas() {
+		Map<String, Map<String, Object>> respuesta = new LinkedHashMap<>();
+		for (String nombre : cacheManager.getCacheNames()) {
+			org.springframework.cache.Cache cache = cacheManager.getCache(nombre);
+			if (cache == null || !(cache.getNativeCache() instanceof Cache<?, ?> caffeine)) {
+				continue; // Proveedor sin estadísticas (por ejemplo spring.cache.type=none)
+			}
+			CacheStats stats = caffeine.stats();
+			Map<String, Object> datos = new LinkedHashMap<>();
+			datos.put("aciertos", stats.hitCount());
+			datos.put("fallos", stats.missCount());
+			datos.put("tasaAciertos", stats.hitRate());
+			datos.put("desalojos", stats.evictionCount());
+			datos.put("tamanio", caffeine.estimatedSize());
+			respuesta.put(nombre, datos);
+		}
+		return respuesta;
+	}
+}
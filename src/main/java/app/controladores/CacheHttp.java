@@ -0,0 +1,67 @@
+package app.controladores;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.web.context.request.ServletWebRequest;
+
+// Respuestas condicionales de los listados y búsquedas (ETag de VersionesTablas).
+// Se consulta antes de llamar a los servicios: si el cliente ya tiene la versión actual
+// (If-None-Match) se responde 304 sin consultar la base ni serializar el contenido.
+// La misma URL responde JSON, CBOR o Smile según la cabecera Accept (ver SerializacionConfig):
+// - Vary: Accept, para que una caché compartida no entregue un formato a quien pidió otro.
+// - El ETag lleva el formato (salvo JSON): cada formato es una representación distinta y un
+//   304 no puede validar una copia guardada en otro formato.
+final class CacheHttp {
+
+	// El navegador puede guardar la respuesta, pero debe revalidarla en cada uso
+	private static final String CACHE_CONTROL = CacheControl.noCache().getHeaderValue();
+	private static final MediaType SMILE = new MediaType("application", "x-jackson-smile");
+
+	private CacheHttp() {
+		// Solo métodos estáticos
+	}
+
+	// true si la petición trae el ETag actual: la respuesta ya es 304 y el controlador devuelve null.
+	// En los dos casos agrega las cabeceras ETag, Cache-Control y Vary.
+	static boolean noModificado(ServletWebRequest peticion, String etag) {
+		peticion.getResponse().setHeader(HttpHeaders.CACHE_CONTROL, CACHE_CONTROL);
+		peticion.getResponse().addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+		String formato = formato(peticion.getHeader(HttpHeaders.ACCEPT));
+		// W/"version" -> W/"version-cbor"
+		return peticion.checkNotModified(
+				formato == null ? etag : etag.substring(0, etag.length() - 1) + "-" + formato + "\"");
+	}
+
+	// Formato binario que va a elegir la negociación de contenido ("cbor" o "smile"), o null
+	// para JSON: el primer tipo aceptado, por calidad, que coincida con alguno de los tres
+	private static String formato(String accept) {
+		if (accept == null || accept.isBlank()) {
+			return null;
+		}
+		List<MediaType> aceptados;
+		try {
+			aceptados = new ArrayList<>(MediaType.parseMediaTypes(accept));
+		} catch (InvalidMediaTypeException e) {
+			return null; // La negociación de contenido responderá el error
+		}
+		aceptados.sort(Comparator.comparingDouble(MediaType::getQualityValue).reversed());
+		for (MediaType tipo : aceptados) {
+			if (tipo.equalsTypeAndSubtype(MediaType.APPLICATION_CBOR)) {
+				return "cbor";
+			}
+			if (tipo.equalsTypeAndSubtype(SMILE)) {
+				return "smile";
+			}
+			if (tipo.includes(MediaType.APPLICATION_JSON)) {
+				return null;
+			}
+		}
+		return null;
+	}
+}
@@ -0,0 +1,158 @@
+package app.controladores;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import app.excepciones.ErrorControlado;
+import app.servicios.RegistroCambios;
+
+@RestController
+@RequestMapping("/cambios")
+@ConditionalOnProperty(name = "app.cambios.habilitado", havingValue = "true", matchIfMissing = true)
+public class CambiosControlador {
+	//Cambios de clientes y correos a partir de una secuencia (ver RegistroCambios).
+	// Un consumidor guarda la secuencia del último cambio que aplicó y pide los siguientes;
+	// con 410 (CAMBIOS_NO_DISPONIBLES) vuelve a leer las tablas completas y sigue desde
+	// la secuencia actual.
+
+	public CambiosControlador() {
+		// Constructor vacío
+	}
+	@Autowired
+	private RegistroCambios registroCambios;
+	// Cantidad máxima de cambios por respuesta
+	@Value("${app.paginacion.limite-maximo:1000}")
+	private int limiteMaximo;
+	// Tiempo máximo de una suscripción SSE: al vencer, el navegador reconecta con Last-Event-ID
+	@Value("${app.cambios.sse-tiempo-maximo:30m}")
+	private Duration tiempoMaximo;
+	// Suscripciones SSE abiertas a la vez (cada una usa un hilo virtual y una conexión)
+	@Value("${app.cambios.sse-maximo-suscripciones:100}")
+	private int maximoSuscripciones;
+	// Sin cambios nuevos, cada cuánto se envía un comentario SSE (detecta clientes desconectados)
+	private static final long ESPERA_MS = 15000;
+
+	private final AtomicInteger suscripciones = new AtomicInteger();
+
+	// Cambios posteriores a "desde" (0 para todos los registrados), uno por línea (NDJSON).
+	// Vacío si no hay cambios nuevos. Los bytes se copian tal cual del registro.
+	@GetMapping(produces = CorreoControlador.NDJSON)
+	public ResponseEntity<byte[]> listar(@RequestParam(value = "desde", defaultValue = "0") String desde,
+			@RequestParam(value = "limite", defaultValue = "1000") String limite) {
+		int cantidad = Math.min(Math.max(Integer.parseInt(limite.trim()), 1), limiteMaximo);
+		ByteBuffer tramo = registroCambios.leer(Long.parseLong(desde.trim()), cantidad);
+		byte[] cuerpo = new byte[tramo.remaining()];
+		tramo.get(cuerpo);
+		return ResponseEntity.ok().contentType(MediaType.parseMediaType(CorreoControlador.NDJSON)).body(cuerpo);
+	}
+
+	// Cambios en vivo como Server-Sent Events: un evento por cambio, con id = secuencia.
+	// Sin "desde" empieza en el cambio siguiente; al reconectar, el navegador envía Last-Event-ID
+	// y sigue donde quedó. Cada suscripción usa un hilo virtual que espera los cambios nuevos;
+	// con app.cambios.sse-maximo-suscripciones abiertas, las siguientes responden 503
+	// (DEMASIADAS_SUSCRIPCIONES). Al terminar (fin, tiempo máximo, error o cliente desconectado)
+	// se libera el lugar y se interrumpe el hilo.
+	@GetMapping(value = "/eventos", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+	public SseEmitter eventos(@RequestParam(value = "desde", required = false) String desde,
+			@RequestHeader(value = "Last-Event-ID", required = false) String ultimoEvento) {
+		String inicio = ultimoEvento != null ? ultimoEvento : desde;
+		long posicion = inicio != null ? Long.parseLong(inicio.trim()) : registroCambios.ultimaSecuencia();
+		registroCambios.leer(posicion, 0); // Antes de responder: 410 si ya no están en el registro
+		if (suscripciones.incrementAndGet() > maximoSuscripciones) {
+			suscripciones.decrementAndGet();
+			throw ErrorControlado.DEMASIADAS_SUSCRIPCIONES;
+		}
+		SseEmitter emisor = new SseEmitter(tiempoMaximo.toMillis());
+		AtomicBoolean activo = new AtomicBoolean(true);
+		Thread hilo = Thread.ofVirtual().name("cambios-sse").unstarted(() -> enviar(emisor, activo, posicion));
+		Runnable terminar = () -> {
+			if (liberar(activo)) {
+				hilo.interrupt(); // Deja de esperar cambios nuevos
+			}
+		};
+		emisor.onCompletion(terminar);
+		emisor.onTimeout(() -> {
+			terminar.run();
+			emisor.complete();
+		});
+		emisor.onError(error -> {
+			terminar.run();
+			emisor.complete();
+		});
+		hilo.start();
+		return emisor;
+	}
+
+	// Libera el lugar de una suscripción una sola vez, la termine quien la termine primero
+	private boolean liberar(AtomicBoolean activo) {
+		if (!activo.compareAndSet(true, false)) {
+			return false;
+		}
+		suscripciones.decrementAndGet();
+		return true;
+	}
+
+	private void enviar(SseEmitter emisor, AtomicBoolean activo, long desde) {
+		try {
+			enviarCambios(emisor, activo, desde);
+		} finally {
+			// El hilo terminó (por ejemplo, al fallar un envío) aunque la conexión no haya avisado
+			liberar(activo);
+		}
+	}
+
+	private void enviarCambios(SseEmitter emisor, AtomicBoolean activo, long desde) {
+		long posicion = desde;
+		try {
+			while (activo.get()) {
+				ByteBuffer tramo = registroCambios.leer(posicion, limiteMaximo);
+				if (!tramo.hasRemaining()) {
+					if (registroCambios.esperar(posicion, ESPERA_MS) == posicion) {
+						emisor.send(SseEmitter.event().comment(""));
+					}
+					continue;
+				}
+				byte[] lineas = new byte[tramo.remaining()];
+				tramo.get(lineas);
+				int inicio = 0;
+				for (int i = 0; i < lineas.length; i++) {
+					if (lineas[i] == '\n') {
+						posicion++;
+						emisor.send(SseEmitter.event().id(Long.toString(posicion))
+								.data(new String(lineas, inicio, i - inicio, StandardCharsets.UTF_8)));
+						inicio = i + 1;
+					}
+				}
+			}
+		} catch (ErrorControlado e) {
+			// El consumidor quedó atrás de los cambios retenidos: debe volver a leer las tablas
+			try {
+				emisor.send(SseEmitter.event().name("error").data(e.getCodigo()));
+				emisor.complete();
+			} catch (IOException | IllegalStateException desconectado) {
+				// Sin cliente al que avisar
+			}
+		} catch (IOException | IllegalStateException e) {
+			// Cliente desconectado o emisor ya terminado
+		} catch (InterruptedException e) {
+			// Suscripción terminada (ver eventos)
+			Thread.currentThread().interrupt();
+		}
+	}
+}
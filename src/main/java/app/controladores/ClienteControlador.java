@@ -1,8 +1,10 @@
 package app.controladores;
 
 import java.util.List;
+import java.util.Map;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -10,9 +12,13 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.ServletWebRequest;
 
+import app.dto.Pagina;
 import app.entidades.Cliente06;
+import app.excepciones.ErrorControlado;
 import app.servicios.ServiciosCliente;
+import app.servicios.VersionesTablas;
 ////////////////////////////////////
 //// Controlador REST para manejar operaciones CRUD de clientes
 @RestController
@@ -24,7 +30,16 @@ public class ClienteControlador {
 	}
 	@Autowired
 	private ServiciosCliente serviciosCliente;
-	private Cliente06 clienteNuevo = null;
+	// Cantidad máxima de registros por página en los listados paginados
+	@Value("${app.paginacion.limite-maximo:1000}")
+	private int limiteMaximo;
+	// Cantidad máxima de claves en las búsquedas de varios registros
+	@Value("${app.multiget.maximo:1000}")
+	private int multigetMaximo;
+	@Autowired
+	private VersionesTablas versionesTablas;
+	// El controlador es un singleton compartido por todas las peticiones:
+	// las entidades de cada petición son variables locales, nunca atributos.
 	// CRUD:Create, guardar dni, nombre y el apellido
 	@GetMapping("/guardar/{dni}/{nombre}/{apellido}")
 	public String guardar(@PathVariable("dni") String dni, 
@@ -44,7 +59,7 @@ public class ClienteControlador {
 		} catch (Exception e) {
 			return "Error al procesar los datos dni, nombre y apellido: " + e.getMessage();
 		}
-		clienteNuevo = serviciosCliente.buscarPorId(dni);
+		Cliente06 clienteNuevo = serviciosCliente.buscarPorId(dni);
 		if (clienteNuevo == null) {
 			clienteNuevo = new Cliente06();
 			// Guardar los campos del cliente
@@ -62,11 +77,15 @@ public class ClienteControlador {
 		}
 	}
 	// CRUD:Read, listar todos los clientes
+	// Con ETag: si la tabla no cambió desde la última petición se responde 304 sin consultarla
 	@GetMapping("/listartodos")
-	public List<Cliente06> listarTodos() {
+	public List<Cliente06> listarTodos(ServletWebRequest peticion) {
 		// Aquí puedes implementar la lógica para listar los clientes
 		// Por ejemplo, podrías llamar a un servicio que obtenga los clientes de la base
 		// de datos
+		if (CacheHttp.noModificado(peticion, versionesTablas.etagClientes())) {
+			return null;
+		}
 		List<Cliente06> respuesta = serviciosCliente.listarTodos();
 		if (respuesta == null || respuesta.isEmpty() || respuesta.size() == 0) {
 			// Manejar el caso en que no hay clientes
@@ -75,12 +94,34 @@ public class ClienteControlador {
 		}
 		return respuesta; // Reemplaza con la lista de clientes obtenida
 	}
+	// CRUD:Read, listar los clientes de a páginas usando un cursor sobre el dni.
+	// "desde" es el último dni recibido (vacío para la primera página).
+	@GetMapping("/pagina")
+	public Pagina<Cliente06> listarPagina(@RequestParam(value = "desde", defaultValue = "") String desde,
+			@RequestParam(value = "limite", defaultValue = "100") String limite) {
+		int cantidad = Math.min(Math.max(Integer.parseInt(limite.trim()), 1), limiteMaximo);
+		return serviciosCliente.listarPagina(desde.trim(), cantidad);
+	}
+	// CRUD:Read, leer varios clientes en una petición: dnis=1,2,3 (o el parámetro repetido).
+	// Devuelve un objeto dni -> cliente, sin los DNI inexistentes.
+	@GetMapping("/buscarpordnis")
+	public Map<String, Cliente06> buscarPorIds(@RequestParam(value = "dnis") List<String> dnis) {
+		if (dnis.size() > multigetMaximo) {
+			throw new IllegalArgumentException("Se pueden buscar hasta " + multigetMaximo + " DNI por petición.");
+		}
+		return serviciosCliente.buscarPorIds(dnis.stream().map(String::trim).filter(dni -> !dni.isEmpty()).toList());
+	}
 	// CRUD:Read, leer un cliente por DNI
+	// Con ETag de la tabla cliente: 304 sin consultar si no cambió
 	@GetMapping("/buscarpordni")
-	public Cliente06 buscarPorId(@RequestParam(value = "dni", defaultValue = "") String dni) {
+	public Cliente06 buscarPorId(@RequestParam(value = "dni", defaultValue = "") String dni,
+			ServletWebRequest peticion) {
 		// Aquí puedes implementar la lógica para buscar un cliente por su DNI
 		// Por ejemplo, podrías llamar a un servicio que obtenga el cliente de la base
 		// de datos
+		if (CacheHttp.noModificado(peticion, versionesTablas.etagClientes())) {
+			return null;
+		}
 		if (dni == null || dni.isEmpty() || dni.isBlank()) {
 			// Manejar el caso en que el DNI no es válido o está vacío
 			// throw new RuntimeException("El campo DNI no es válido o está vacío.");
@@ -115,17 +156,12 @@ public class ClienteControlador {
 		} catch (Exception e) {
 			return "Error al procesar los datos dni, nombre y apellido: " + e.getMessage();
 		}
-		Cliente06 clienteExistente = serviciosCliente.buscarPorId(dni);
-		if (clienteExistente != null) {
-			// Actualizar los campos del cliente existente con los nuevos valores
-			//clienteExistente.setDni(dni); // No es necesario actualizar el DNI, ya que no cambia
-			clienteExistente.setNombre(nombre);
-			clienteExistente.setApellido(apellido);
-			serviciosCliente.guardar(clienteExistente);
-			return "Cliente actualizado correctamente: " + clienteExistente.getNombre() + " " + clienteExistente.getApellido();
+		// Un solo UPDATE, sin leer el cliente antes: la cantidad de filas dice si existía
+		if (serviciosCliente.actualizarDatos(dni, nombre, apellido)) {
+			return "Cliente actualizado correctamente: " + nombre + " " + apellido;
 		} else {
-			// Manejar el caso en que no se encuentra el cliente
-			return "Cliente no encontrado con DNI: " + dni + ". No se pudo actualizar.";
+			// Manejar el caso en que no se encuentra el cliente: 404 con la respuesta constante
+			throw ErrorControlado.CLIENTE_NO_ENCONTRADO;
 		}
 	}
 	// CRUD:Delete por DNI
@@ -139,13 +175,12 @@ public class ClienteControlador {
 		} catch (Exception e) {
 			return "Error al procesar el DNI: " + e.getMessage();
 		}
-		Cliente06 clienteExistente = serviciosCliente.buscarPorId(dni);
-		if (clienteExistente != null) {
-			serviciosCliente.eliminarPorId(dni);
+		// Un solo DELETE, sin leer el cliente antes: la cantidad de filas dice si existía
+		if (serviciosCliente.borrarPorDni(dni)) {
 			return "Cliente eliminado correctamente con DNI: " + dni;
 		} else {
-			// Manejar el caso en que no se encuentra el cliente
-			return "Cliente no encontrado con DNI: " + dni + ". No se pudo eliminar.";
+			// Manejar el caso en que no se encuentra el cliente: 404 con la respuesta constante
+			throw ErrorControlado.CLIENTE_NO_ENCONTRADO;
 		}
 	}
 }
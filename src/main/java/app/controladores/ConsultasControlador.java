@@ -0,0 +1,31 @@
+package app.controladores;
+
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import app.dto.ConsultaLenta;
+import app.servicios.RegistroConsultasLentas;
+
+////////////////////////////////////
+//// Controlador REST para consultar las sentencias SQL más lentas
+@RestController
+@RequestMapping("/consultas")
+public class ConsultasControlador {
+
+	public ConsultasControlador() {
+		// Constructor vacío
+	}
+	@Autowired
+	private RegistroConsultasLentas registroConsultasLentas;
+
+	// Las N sentencias más lentas (por encima de app.consultas.umbral-ms) desde el inicio
+	@GetMapping("/lentas")
+	public List<ConsultaLenta> listarMasLentas(@RequestParam(value = "top", defaultValue = "10") String top) {
+		return registroConsultasLentas.listarMasLentas(Math.max(Integer.parseInt(top.trim()), 0));
+	}
+}
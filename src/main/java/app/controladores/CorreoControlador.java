@@ -1,8 +1,17 @@
 package app.controladores;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.time.Duration;
 import java.util.List;
+import java.util.Map;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -10,11 +19,28 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import app.dto.Cantidad;
+import app.dto.ClientesCorreos;
+import app.dto.CorreoResumen;
+import app.dto.EstadisticasCorreos;
+import app.dto.EstadoEscritura;
+import app.dto.Pagina;
 import app.entidades.Cliente06;
 import app.entidades.Correo06;
+import app.excepciones.ErrorControlado;
+import app.servicios.ContadoresCorreos;
 import app.servicios.ServiciosCliente;
+import app.servicios.EscrituraDiferidaCorreos;
+import app.servicios.FiltroCorreos;
+import app.servicios.IndiceCorreos;
 import app.servicios.ServiciosCorreo;
+import app.servicios.VersionesTablas;
 
 @RestController
 @RequestMapping("/correos")
@@ -30,39 +56,73 @@ public class CorreoControlador {
 	private ServiciosCorreo serviciosCorreo;
 	@Autowired
 	private ServiciosCliente serviciosCliente;
-	// Declaración de las referencias a las entidades
-	private Correo06 correoNuevo = null;
-	private Cliente06 cliente = null;
+	@Autowired
+	private ObjectMapper objectMapper;
+	@Autowired
+	private IndiceCorreos indiceCorreos;
+	@Autowired
+	private EscrituraDiferidaCorreos escrituraDiferida;
+	@Autowired
+	private FiltroCorreos filtroCorreos;
+	// Cantidad máxima de registros por página en los listados paginados
+	@Value("${app.paginacion.limite-maximo:1000}")
+	private int limiteMaximo;
+	// Cantidad máxima de claves en las búsquedas de varios registros
+	@Value("${app.multiget.maximo:1000}")
+	private int multigetMaximo;
+	// Tiempo máximo de los listados NDJSON (ver TiempoStreaming)
+	@Value("${app.streaming.tiempo-maximo:30m}")
+	private Duration tiempoStreaming;
+	@Autowired
+	private VersionesTablas versionesTablas;
+	@Autowired
+	private ContadoresCorreos contadoresCorreos;
+	// Tipo de contenido para el modo streaming: un objeto JSON por línea
+	static final String NDJSON = "application/x-ndjson";
+	// El controlador es un singleton compartido por todas las peticiones:
+	// las entidades de cada petición son variables locales, nunca atributos.
 
 	// CRUD:Create, guardar el correo dado el dni de un cliente
 	@GetMapping("/guardar/{dni}/{correo}")
-	public String guardar(@PathVariable("dni") String dni, @PathVariable("correo") String correo) {
+	public ResponseEntity<String> guardar(@PathVariable("dni") String dni, @PathVariable("correo") String correo) {
 		// Aquí puedes implementar la lógica para guardar un correo dado un DNI
 		// Por ejemplo, podrías llamar a un servicio que verifique el correo
-		correoNuevo = new Correo06();
+		Correo06 correoNuevo = new Correo06();
 		try {
 			dni = dni.trim(); // Limpiar espacios en blanco del DNI
 			correo = correo.trim(); // Limpiar espacios en blanco del correo
 		} catch (Exception e) {
-			return "Error al procesar los datos dni y correo: " + e.getMessage();
+			return ResponseEntity.ok("Error al procesar los datos dni y correo: " + e.getMessage());
 		}
-		cliente = serviciosCliente.buscarPorId(dni);
+		Cliente06 cliente = serviciosCliente.buscarPorId(dni);
 		if (cliente == null) {
-			return "No existe un cliente con el DNI: " + dni + ". No se ha agregado un correo nuevo.";
+			throw ErrorControlado.CLIENTE_NO_ENCONTRADO; // 404 con la respuesta constante
+		}
+		// Correo repetido: se responde sin intentar el INSERT (el filtro evita la consulta si es nuevo)
+		if (filtroCorreos.existe(correo)) {
+			return ResponseEntity.ok("Ya existe el correo: " + correo + ". No se ha agregado un correo nuevo.");
+		}
+		if (escrituraDiferida.isHabilitada()) {
+			return encolar(0, correo, dni);
 		}
 		correoNuevo.setCliente06(cliente);
 		correoNuevo.setCorreo(correo);
 		serviciosCorreo.guardar(correoNuevo);
-		return "Correo agregado correctamente para el dni: " + dni + " - " + correo;
+		return ResponseEntity.ok("Correo agregado correctamente para el dni: " + dni + " - " + correo);
 	}
 
 	// CRUD:Read, listar todos los correos
 	@GetMapping("/listartodos")
 	public List<Correo06> listarTodos(
-			@RequestParam(value = "buscarCorreoDni", defaultValue = "") String buscarCorreoDni) {
+			@RequestParam(value = "buscarCorreoDni", defaultValue = "") String buscarCorreoDni,
+			ServletWebRequest peticion) {
 		// Aquí puedes implementar la lógica para listar los correos
 		// Por ejemplo, podrías llamar a un servicio que obtenga los correos de la base
 		// de datos
+		// Con ETag de las tablas correo y cliente: 304 sin consultar si no cambiaron
+		if (CacheHttp.noModificado(peticion, versionesTablas.etagCorreos())) {
+			return null;
+		}
 		List<Correo06> respuesta = null;
 		buscarCorreoDni = buscarCorreoDni.trim(); // Limpiar espacios en blanco del dni
 		if (buscarCorreoDni != null && !buscarCorreoDni.isEmpty() && !buscarCorreoDni.isBlank()
@@ -81,13 +141,49 @@ public class CorreoControlador {
 	}
 
 	
+	// CRUD:Read, listar todos los correos en modo streaming (NDJSON).
+	// Se elige con la cabecera Accept: application/x-ndjson. Las filas se leen con un cursor
+	// del servidor y se escriben a medida que llegan, sin armar la lista completa en memoria.
+	@GetMapping(value = "/listartodos", produces = NDJSON)
+	public ResponseEntity<StreamingResponseBody> listarTodosNdjson(
+			@RequestParam(value = "buscarCorreoDni", defaultValue = "") String buscarCorreoDni,
+			ServletWebRequest peticion) {
+		String dni = buscarCorreoDni.trim(); // Limpiar espacios en blanco del dni
+		return ndjson(peticion, salida -> escribirNdjson(salida, dni));
+	}
+
+	// CRUD:Read, leer varios correos (con su cliente) en una petición: ids=1,2,3 (o el parámetro
+	// repetido). Devuelve un objeto idCorreo -> correo, sin los idCorreo inexistentes.
+	@GetMapping("/buscarporids")
+	public Map<Integer, Correo06> buscarPorIds(@RequestParam(value = "ids") List<String> ids) {
+		if (ids.size() > multigetMaximo) {
+			throw new IllegalArgumentException("Se pueden buscar hasta " + multigetMaximo + " idCorreo por petición.");
+		}
+		return serviciosCorreo.buscarPorIds(ids.stream().map(id -> ServiciosCorreo.idCorreo(id.trim())).toList());
+	}
+
+	// CRUD:Read, listar los correos de a páginas usando un cursor sobre idCorreo.
+	// "desde" es el último idCorreo recibido (0 para la primera página).
+	@GetMapping("/pagina")
+	public Pagina<Correo06> listarPagina(@RequestParam(value = "desde", defaultValue = "0") String desde,
+			@RequestParam(value = "limite", defaultValue = "100") String limite) {
+		int idDesde = Integer.parseInt(desde.trim());
+		int cantidad = Math.min(Math.max(Integer.parseInt(limite.trim()), 1), limiteMaximo);
+		return serviciosCorreo.listarPagina(idDesde, cantidad);
+	}
+
 	// CRUD:Read, listar todos los correos
 	@GetMapping("/verclientescorreos")
 	public List<Correo06> verclientescorreos(
-			@RequestParam(value = "buscarClientesCorreosDNI", defaultValue = "") String buscarClientesCorreosDNI) {
+			@RequestParam(value = "buscarClientesCorreosDNI", defaultValue = "") String buscarClientesCorreosDNI,
+			ServletWebRequest peticion) {
 		// Aquí puedes implementar la lógica para listar los correos
 		// Por ejemplo, podrías llamar a un servicio que obtenga los correos de la base
 		// de datos
+		// Con ETag de las tablas correo y cliente: 304 sin consultar si no cambiaron
+		if (CacheHttp.noModificado(peticion, versionesTablas.etagCorreos())) {
+			return null;
+		}
 		List<Correo06> respuesta = null;
 		buscarClientesCorreosDNI = buscarClientesCorreosDNI.trim(); // Limpiar espacios en blanco del dni
 		if (buscarClientesCorreosDNI != null && !buscarClientesCorreosDNI.isEmpty() && !buscarClientesCorreosDNI.isBlank()
@@ -110,31 +206,168 @@ public class CorreoControlador {
 	
 	
 	
+	// CRUD:Read, clientes y correos en forma normalizada: cada cliente una sola vez y los
+	// correos con el dni de su cliente. Mismo filtro y ETag que /verclientescorreos.
+	// Como las demás respuestas, admite JSON, CBOR o Smile según la cabecera Accept.
+	@GetMapping("/verclientescorreos/normalizado")
+	public ClientesCorreos verclientescorreosNormalizado(
+			@RequestParam(value = "buscarClientesCorreosDNI", defaultValue = "") String buscarClientesCorreosDNI,
+			ServletWebRequest peticion) {
+		if (CacheHttp.noModificado(peticion, versionesTablas.etagCorreos())) {
+			return null;
+		}
+		String dni = buscarClientesCorreosDNI.trim(); // Limpiar espacios en blanco del dni
+		return ClientesCorreos.de(dni.isEmpty() ? serviciosCorreo.listarCorreosConClientes()
+				: serviciosCorreo.listarCorreosConClientesPorDni(dni));
+	}
+
+	// Búsqueda en el índice en memoria: correos que empiezan con "valor" (por ejemplo "juan.").
+	// "desde" es el cursor "siguiente" de la página anterior.
+	@GetMapping("/buscar/prefijo")
+	public Pagina<CorreoResumen> buscarPorPrefijo(@RequestParam(value = "valor") String valor,
+			@RequestParam(value = "desde", defaultValue = "") String desde,
+			@RequestParam(value = "limite", defaultValue = "100") String limite) {
+		int cantidad = Math.min(Math.max(Integer.parseInt(limite.trim()), 1), limiteMaximo);
+		return indiceCorreos.buscarPorPrefijo(valor.trim(), desde.trim(), cantidad);
+	}
+
+	// Búsqueda en el índice en memoria: correos de un dominio (por ejemplo "example.com" o "@example.com").
+	// "desde" es el cursor "siguiente" de la página anterior (un idCorreo).
+	@GetMapping("/buscar/dominio")
+	public Pagina<CorreoResumen> buscarPorDominio(@RequestParam(value = "valor") String valor,
+			@RequestParam(value = "desde", defaultValue = "0") String desde,
+			@RequestParam(value = "limite", defaultValue = "100") String limite) {
+		String dominio = valor.trim();
+		if (dominio.startsWith("@")) {
+			dominio = dominio.substring(1);
+		}
+		int cantidad = Math.min(Math.max(Integer.parseInt(limite.trim()), 1), limiteMaximo);
+		return indiceCorreos.buscarPorDominio(dominio, Integer.parseInt(desde.trim()), cantidad);
+	}
+
+	// CRUD:Read, ver clientes y correos en modo streaming (NDJSON)
+	@GetMapping(value = "/verclientescorreos", produces = NDJSON)
+	public ResponseEntity<StreamingResponseBody> verclientescorreosNdjson(
+			@RequestParam(value = "buscarClientesCorreosDNI", defaultValue = "") String buscarClientesCorreosDNI,
+			ServletWebRequest peticion) {
+		String dni = buscarClientesCorreosDNI.trim(); // Limpiar espacios en blanco del dni
+		return ndjson(peticion, salida -> escribirNdjson(salida, dni));
+	}
+
+	// Respuesta NDJSON con su Content-Type explícito: StreamingResponseBody no lo toma de
+	// "produces" y sin él Tomcat no aplica la compresión (server.compression.mime-types)
+	private ResponseEntity<StreamingResponseBody> ndjson(ServletWebRequest peticion, StreamingResponseBody cuerpo) {
+		TiempoStreaming.aplicar(peticion, tiempoStreaming);
+		return ResponseEntity.ok().contentType(MediaType.parseMediaType(NDJSON)).body(cuerpo);
+	}
+
+	// Escribe los correos (con su cliente) como NDJSON. Sin dni se recorre toda la tabla
+	// con el cursor del servidor; con dni se usa la consulta indexada por cliente.
+	private void escribirNdjson(OutputStream salida, String dni) throws IOException {
+		JsonGenerator generador = objectMapper.getFactory().createGenerator(salida);
+		generador.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+		generador.setRootValueSeparator(null);
+		try {
+			if (dni.isEmpty()) {
+				serviciosCorreo.recorrerCorreosConClientes(correo -> escribirLinea(generador, correo));
+			} else {
+				serviciosCorreo.listarPorDni(dni).forEach(correo -> escribirLinea(generador, correo));
+			}
+		} catch (UncheckedIOException e) {
+			throw e.getCause(); // El cliente cerró la conexión o falló la escritura
+		} finally {
+			generador.close();
+		}
+	}
+
+	private void escribirLinea(JsonGenerator generador, Correo06 correo) {
+		try {
+			generador.writeObject(correo);
+			generador.writeRaw('\n');
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
 	// CRUD:Update, actualizar el correo dado el id de correo
 	@PostMapping("/actualizar/{idCorreo}/{correo}")
-	public String actualizar(@PathVariable("idCorreo") String idCorreo, @PathVariable("correo") String correo) {
+	public ResponseEntity<String> actualizar(@PathVariable("idCorreo") String idCorreo,
+			@PathVariable("correo") String correo) {
 		// Aquí puedes implementar la lógica para actualizar un correo por su idCorreo
 		// Por ejemplo, podrías llamar a un servicio que actualice el correo en la base
 		try {
 			idCorreo = idCorreo.trim(); // Limpiar espacios en blanco del idCorreo
 			correo = correo.trim(); // Limpiar espacios en blanco del correo
 		} catch (Exception e) {
-			return "Error al procesar los datos idCorreo y correo: " + e.getMessage();
-		}
-		Correo06 correoExistente = serviciosCorreo.buscarPorId(idCorreo);
-		if (correoExistente != null) {
-			// Actualizar los campos del cliente existente con los nuevos valores
-			correoExistente.setCorreo(correo);
-			// Agrega aquí otros campos que necesites actualizar
-
-			// Guardar el correo actualizado
-			serviciosCorreo.guardar(correoExistente);
-			return "Correo actualizado correctamente: " + idCorreo + " - " + correo + " - para el cliente: "
-					+ correoExistente.getCliente06().getNombre() + " " + correoExistente.getCliente06().getApellido();
+			return ResponseEntity.ok("Error al procesar los datos idCorreo y correo: " + e.getMessage());
+		}
+		// El id se convierte una sola vez; las llamadas siguientes usan las variantes int
+		int id = ServiciosCorreo.idCorreo(idCorreo);
+		Correo06 correoExistente = serviciosCorreo.buscarPorId(id);
+		if (correoExistente != null && !correoExistente.getCorreo().equalsIgnoreCase(correo)
+				&& filtroCorreos.existe(correo)) {
+			return ResponseEntity.ok("Ya existe el correo: " + correo + ". No se pudo actualizar el idCorreo: " + idCorreo);
+		}
+		if (correoExistente != null && escrituraDiferida.isHabilitada()) {
+			return encolar(correoExistente.getIdCorreo(), correo, correoExistente.getCliente06().getDni());
+		}
+		// Un solo UPDATE (los datos del mensaje salen de correoExistente, normalmente en caché).
+		// 0 filas: el correo se borró después de la búsqueda.
+		if (correoExistente != null
+				&& serviciosCorreo.actualizarCorreo(id, correo, correoExistente.getCliente06().getDni())) {
+			return ResponseEntity.ok("Correo actualizado correctamente: " + idCorreo + " - " + correo
+					+ " - para el cliente: " + correoExistente.getCliente06().getNombre() + " "
+					+ correoExistente.getCliente06().getApellido());
 		} else {
-			// Manejar el caso en que no se encuentra el cliente
-			return "Correo no encontrado con idCorreo: " + idCorreo + ". No se pudo actualizar.";
+			// Manejar el caso en que no se encuentra el correo: 404 con la respuesta constante
+			throw ErrorControlado.CORREO_NO_ENCONTRADO;
+		}
+	}
+
+	// Escritura diferida: la petición ya fue validada, se encola y se responde 202 con el ticket.
+	// Con la cola llena (o la aplicación deteniéndose) se responde 503 para que el cliente reintente.
+	private ResponseEntity<String> encolar(int idCorreo, String correo, String dni) {
+		Long ticket = escrituraDiferida.encolar(idCorreo, correo, dni);
+		if (ticket == null) {
+			return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+					.body("Cola de escritura llena. No se ha guardado el correo " + correo + ", reintente más tarde.");
+		}
+		return ResponseEntity.status(HttpStatus.ACCEPTED)
+				.body("Correo encolado para el dni: " + dni + " - " + correo + " - ticket: " + ticket);
+	}
+
+	// Estado de una escritura diferida (PENDIENTE, GUARDADO o ERROR) por su número de ticket
+	@GetMapping("/escrituras/{ticket}")
+	public ResponseEntity<EstadoEscritura> estadoEscritura(@PathVariable("ticket") String ticket) {
+		EstadoEscritura estado = escrituraDiferida.estado(Long.parseLong(ticket.trim()));
+		if (estado == null) {
+			return ResponseEntity.notFound().build();
+		}
+		return ResponseEntity.ok(estado);
+	}
+
+	// Estadísticas desde los contadores en memoria (ver ContadoresCorreos), sin consultar MySQL:
+	// total de correos, clientes y dominios, y los clientes y dominios con más correos.
+	@GetMapping("/estadisticas")
+	public EstadisticasCorreos estadisticas() {
+		return contadoresCorreos.resumen();
+	}
+
+	// Cantidad de correos de un cliente
+	@GetMapping("/estadisticas/cliente/{dni}")
+	public Cantidad estadisticasCliente(@PathVariable("dni") String dni) {
+		String clave = dni.trim();
+		return new Cantidad(clave, contadoresCorreos.cantidadPorDni(clave));
+	}
+
+	// Cantidad de correos de un dominio (por ejemplo "example.com" o "@example.com")
+	@GetMapping("/estadisticas/dominio/{dominio}")
+	public Cantidad estadisticasDominio(@PathVariable("dominio") String dominio) {
+		String clave = dominio.trim();
+		if (clave.startsWith("@")) {
+			clave = clave.substring(1);
 		}
+		return new Cantidad(clave, contadoresCorreos.cantidadPorDominio(clave));
 	}
 
 	// CRUD:Delete, borrar correo por idCorreo
@@ -148,16 +381,17 @@ public class CorreoControlador {
 		} catch (Exception e) {
 			return "Error al procesar el idCorreo: " + e.getMessage();
 		}
-		Correo06 correoExistente = serviciosCorreo.buscarPorId(idCorreo);
-		if (correoExistente != null) {
-			serviciosCorreo.eliminarPorId(idCorreo);
+		int id = ServiciosCorreo.idCorreo(idCorreo);
+		Correo06 correoExistente = serviciosCorreo.buscarPorId(id);
+		// Un solo DELETE; 0 filas: el correo se borró después de la búsqueda
+		if (correoExistente != null && serviciosCorreo.borrarPorId(id)) {
 			return "Correo eliminado correctamente con idCorreo: " + idCorreo + " - " + correoExistente.getCorreo()
 					+ " - para el cliente: " + correoExistente.getCliente06().getNombre() + " "
 					+ correoExistente.getCliente06().getApellido() + " - DNI del cliente: "
 					+ correoExistente.getCliente06().getDni();
 		} else {
-			// Manejar el caso donde no se encuentra el correo
-			return "Correo no encontrado con idCorreo: " + idCorreo + ". No se pudo eliminar.";
+			// Manejar el caso donde no se encuentra el correo: 404 con la respuesta constante
+			throw ErrorControlado.CORREO_NO_ENCONTRADO;
 		}
 	}
 }
@@ -0,0 +1,132 @@
+package app.controladores;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.zip.GZIPOutputStream;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+import app.dto.ClienteCorreoFila;
+import app.servicios.ServiciosCorreo;
+
+////////////////////////////////////
+//// Controlador REST para exportar el join de clientes y correos.
+//// Las filas se leen con un cursor del servidor y se escriben a medida que llegan,
+//// así el uso de memoria no depende de la cantidad de filas exportadas.
+@RestController
+@RequestMapping("/exportar")
+public class ExportacionControlador {
+
+	public ExportacionControlador() {
+		// Constructor vacío
+	}
+	@Autowired
+	private ServiciosCorreo serviciosCorreo;
+	@Autowired
+	private ObjectMapper objectMapper;
+	// Cada cuántas filas se vacía el buffer hacia el cliente (y se detecta si se desconectó)
+	private static final int FILAS_POR_ENVIO = 1000;
+	// Tiempo máximo de una exportación (ver TiempoStreaming)
+	@Value("${app.streaming.tiempo-maximo:30m}")
+	private Duration tiempoStreaming;
+
+	// Exportar clientes y correos en formato csv o ndjson.
+	// Con gzip=true (o si el cliente acepta gzip y no se indica) se comprime al vuelo.
+	@GetMapping("/clientescorreos")
+	public ResponseEntity<StreamingResponseBody> exportarClientesCorreos(
+			@RequestParam(value = "formato", defaultValue = "csv") String formato,
+			@RequestParam(value = "gzip", required = false) Boolean gzip,
+			@RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, defaultValue = "") String acceptEncoding,
+			ServletWebRequest peticion) {
+		formato = formato.trim().toLowerCase();
+		if (!formato.equals("csv") && !formato.equals("ndjson")) {
+			throw new IllegalArgumentException("formato debe ser csv o ndjson: " + formato);
+		}
+		boolean comprimir = gzip != null ? gzip : acceptEncoding.contains("gzip");
+		boolean csv = formato.equals("csv");
+		String archivo = "clientescorreos." + formato + (comprimir ? ".gz" : "");
+		ResponseEntity.BodyBuilder respuesta = ResponseEntity.ok()
+				.contentType(csv ? new MediaType("text", "csv", StandardCharsets.UTF_8)
+						: MediaType.parseMediaType(CorreoControlador.NDJSON))
+				.header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + archivo + "\"");
+		if (comprimir) {
+			respuesta.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+		}
+		TiempoStreaming.aplicar(peticion, tiempoStreaming);
+		return respuesta.body(salida -> exportar(salida, csv, comprimir));
+	}
+
+	private void exportar(OutputStream salida, boolean csv, boolean comprimir) throws IOException {
+		OutputStream destino = comprimir ? new GZIPOutputStream(salida, 64 * 1024) : salida;
+		Writer escritor = new BufferedWriter(new OutputStreamWriter(destino, StandardCharsets.UTF_8), 64 * 1024);
+		ObjectWriter json = objectMapper.writerFor(ClienteCorreoFila.class);
+		int[] filas = { 0 };
+		try {
+			if (csv) {
+				escritor.write("dni,nombre,apellido,idCorreo,correo\n");
+			}
+			serviciosCorreo.recorrerClientesCorreos(fila -> {
+				try {
+					if (csv) {
+						escribirCsv(escritor, fila);
+					} else {
+						escritor.write(json.writeValueAsString(fila));
+						escritor.write('\n');
+					}
+					if (++filas[0] % FILAS_POR_ENVIO == 0) {
+						escritor.flush(); // Si el cliente se desconectó falla aquí y se corta el recorrido
+					}
+				} catch (IOException e) {
+					throw new UncheckedIOException(e);
+				}
+			});
+			escritor.flush();
+			if (destino instanceof GZIPOutputStream comprimido) {
+				comprimido.finish();
+			}
+		} catch (UncheckedIOException e) {
+			throw e.getCause(); // Cliente desconectado: no se sigue leyendo de la base de datos
+		}
+	}
+
+	private static void escribirCsv(Writer escritor, ClienteCorreoFila fila) throws IOException {
+		escritor.write(campoCsv(fila.getDni()));
+		escritor.write(',');
+		escritor.write(campoCsv(fila.getNombre()));
+		escritor.write(',');
+		escritor.write(campoCsv(fila.getApellido()));
+		escritor.write(',');
+		escritor.write(Integer.toString(fila.getIdCorreo()));
+		escritor.write(',');
+		escritor.write(campoCsv(fila.getCorreo()));
+		escritor.write('\n');
+	}
+
+	// Entre comillas solo si el valor tiene coma, comillas o saltos de línea
+	private static String campoCsv(String valor) {
+		if (valor.indexOf(',') < 0 && valor.indexOf('"') < 0 && valor.indexOf('\n') < 0 && valor.indexOf('\r') < 0) {
+			return valor;
+		}
+		return "\"" + valor.replace("\"", "\"\"") + "\"";
+	}
+}
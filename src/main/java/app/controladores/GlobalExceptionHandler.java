@@ -1,80 +1,144 @@
 package app.controladores;
 
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
 import org.hibernate.exception.ConstraintViolationException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.core.env.Environment;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.servlet.NoHandlerFoundException;
+import org.springframework.web.servlet.resource.NoResourceFoundException;
+
+import app.dto.RespuestaError;
+import app.excepciones.ErrorControlado;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 
 @ControllerAdvice
 public class GlobalExceptionHandler {
+	//Todas las respuestas de error tienen la forma de RespuestaError (codigo, estado, mensaje).
+	// Los errores frecuentes (recurso inexistente, número inválido, error interno) responden
+	// con instancias constantes: una ráfaga de peticiones inválidas no arma textos nuevos.
+	// Cada excepción suma uno al contador errores.respuestas (etiquetas excepcion y codigo).
 
 	public GlobalExceptionHandler() {
 		// TODO Auto-generated constructor stub
 		// Manejar excepciones específicas
 	}
-    @ExceptionHandler(NoHandlerFoundException.class)
-    public ResponseEntity<String> handleNotFound(NoHandlerFoundException ex) {
-        return new ResponseEntity<>("Recurso no encontrado. Verifica la URL o los parámetros.", HttpStatus.NOT_FOUND);
+	private static final Logger LOG = LoggerFactory.getLogger(GlobalExceptionHandler.class);
+
+	// Respuestas constantes de los errores frecuentes
+	private static final ResponseEntity<RespuestaError> RECURSO_NO_ENCONTRADO = respuesta(HttpStatus.NOT_FOUND,
+			"RECURSO_NO_ENCONTRADO", "Recurso no encontrado. Verifica la URL o los parámetros.");
+	private static final ResponseEntity<RespuestaError> NUMERO_INVALIDO = respuesta(HttpStatus.BAD_REQUEST,
+			"NUMERO_INVALIDO", "Formato de número inválido.");
+	private static final ResponseEntity<RespuestaError> RESTRICCION_VIOLADA = respuesta(HttpStatus.BAD_REQUEST,
+			"RESTRICCION_VIOLADA", "Error de violación de restricción: (clave primaria, foránea o valor único).");
+	private static final ResponseEntity<RespuestaError> ERROR_INTERNO = respuesta(HttpStatus.INTERNAL_SERVER_ERROR,
+			"ERROR_INTERNO", "Ocurrió un error inesperado. No es un usuario de desarollo, para ver más detalles de "
+					+ "la pila de errores, por favor, configura el usuario de desarrollo en application.properties.");
+
+	@Autowired
+	private MeterRegistry registro;
+	// Contador por tipo de excepción y código, creado la primera vez que se usa.
+	// La clave es la clase de la excepción, o la instancia en el caso de ErrorControlado
+	// (una sola clase con un código por instancia).
+	private final Map<Object, Counter> contadores = new ConcurrentHashMap<>();
+
+    @ExceptionHandler(ErrorControlado.class)
+    public ResponseEntity<RespuestaError> handleErrorControlado(ErrorControlado ex) {
+        return contar(ex, ex.getRespuesta());
+    }
+    // Ruta inexistente (Spring Boot 3.2+ lanza NoResourceFoundException en lugar de NoHandlerFoundException)
+    @ExceptionHandler({ NoHandlerFoundException.class, NoResourceFoundException.class })
+    public ResponseEntity<RespuestaError> handleNotFound(Exception ex) {
+        return contar(ex, RECURSO_NO_ENCONTRADO);
     }
     // Manejar excepciones de tipo IllegalArgumentException
     @ExceptionHandler(IllegalArgumentException.class)
-	public ResponseEntity<String> handleIllegalArgument(IllegalArgumentException ex) {
-		return new ResponseEntity<>("Argumento inválido: " + ex.getMessage(), HttpStatus.BAD_REQUEST);
+	public ResponseEntity<RespuestaError> handleIllegalArgument(IllegalArgumentException ex) {
+		return contar(ex, respuesta(HttpStatus.BAD_REQUEST, "ARGUMENTO_INVALIDO", "Argumento inválido: " + ex.getMessage()));
 	}
     // Manejar excepciones de tipo NullPointerException
     @ExceptionHandler(NullPointerException.class)
-	public ResponseEntity<String> handleNullPointer(NullPointerException ex) {
-		return new ResponseEntity<>("Error de referencia nula: " + ex.getMessage(), HttpStatus.INTERNAL_SERVER_ERROR);
+	public ResponseEntity<RespuestaError> handleNullPointer(NullPointerException ex) {
+		return contar(ex, respuesta(HttpStatus.INTERNAL_SERVER_ERROR, "REFERENCIA_NULA", "Error de referencia nula: " + ex.getMessage()));
 	}
     // Manejar excepciones de tipo IndexOutOfBoundsException
     @ExceptionHandler(IndexOutOfBoundsException.class)
-        public ResponseEntity<String> handleIndexOutOfBounds(IndexOutOfBoundsException ex) {
-    	        return new ResponseEntity<>("Índice fuera de los límites: " + ex.getMessage(), HttpStatus.BAD_REQUEST);
+        public ResponseEntity<RespuestaError> handleIndexOutOfBounds(IndexOutOfBoundsException ex) {
+    	        return contar(ex, respuesta(HttpStatus.BAD_REQUEST, "INDICE_FUERA_DE_RANGO", "Índice fuera de los límites: " + ex.getMessage()));
     	        	
     }
-    // Manejar excepciones de tipo NumberFormatException
+    // Manejar excepciones de tipo NumberFormatException (subclase de IllegalArgumentException)
     @ExceptionHandler(NumberFormatException.class)
-	public ResponseEntity<String> handleNumberFormat(NumberFormatException ex) {
-		return new ResponseEntity<>("Formato de número inválido: " + ex.getMessage(), HttpStatus.BAD_REQUEST);
+	public ResponseEntity<RespuestaError> handleNumberFormat(NumberFormatException ex) {
+		return contar(ex, NUMERO_INVALIDO);
 	}
     // Manejar excepciones de tipo UnsupportedOperationException
     @ExceptionHandler(UnsupportedOperationException.class)
-	public ResponseEntity<String> handleUnsupportedOperation(UnsupportedOperationException ex) {
-		return new ResponseEntity<>("Operación no soportada: " + ex.getMessage(), HttpStatus.NOT_IMPLEMENTED);
+	public ResponseEntity<RespuestaError> handleUnsupportedOperation(UnsupportedOperationException ex) {
+		return contar(ex, respuesta(HttpStatus.NOT_IMPLEMENTED, "OPERACION_NO_SOPORTADA", "Operación no soportada: " + ex.getMessage()));
 	}
     //Manejar excepciones de tipo org.hibernate.exception.ConstraintViolationException
-    @ExceptionHandler(ConstraintViolationException.class)
-        public ResponseEntity<String> handleConstraintViolation(org.hibernate.exception.ConstraintViolationException ex) {
-    	        return new ResponseEntity<>("Error de violación de restricción: (clave primaria, foránea) " + ex.getMessage(), HttpStatus.BAD_REQUEST);        
+    // y su traducción de Spring, DataIntegrityViolationException (por ejemplo un correo repetido)
+    @ExceptionHandler({ ConstraintViolationException.class, DataIntegrityViolationException.class })
+        public ResponseEntity<RespuestaError> handleConstraintViolation(Exception ex) {
+    	        return contar(ex, RESTRICCION_VIOLADA);        
     }
     // Manejador para excepciones de validación de argumentos
     @ExceptionHandler(MethodArgumentNotValidException.class)
-	public ResponseEntity<String> handleValidationException(
+	public ResponseEntity<RespuestaError> handleValidationException(
 			org.springframework.web.bind.MethodArgumentNotValidException ex) {
-		return new ResponseEntity<>("Error de validación de argumentos - " + ex.getMessage(), HttpStatus.BAD_REQUEST);
+		return contar(ex, respuesta(HttpStatus.BAD_REQUEST, "VALIDACION", "Error de validación de argumentos - " + ex.getMessage()));
 	}
     // Manejador para No static resource found
     @ExceptionHandler(NoSuchMethodException.class)
-    public ResponseEntity<String> handleNoSuchMethod(NoSuchMethodException ex) {
-        return new ResponseEntity<>("Método no encontrado: " + ex.getMessage(), HttpStatus.NOT_FOUND);
+    public ResponseEntity<RespuestaError> handleNoSuchMethod(NoSuchMethodException ex) {
+        return contar(ex, respuesta(HttpStatus.NOT_FOUND, "METODO_NO_ENCONTRADO", "Método no encontrado: " + ex.getMessage()));
     }
     //!Cuidado programador, atento con esta captura de excepciones,
     //Esta captura va la final del código Java, se lanzara como último recurso
     // en caso de que ninguna de las excepciones anteriores sea capturada.
     /////////////////////
-    // Manejar excepciones genéricas
+    // Manejar excepciones genéricas: el detalle va al log; la respuesta es constante,
+    // salvo para el usuario de desarrollo, que recibe también el mensaje y la pila.
     @ExceptionHandler(Exception.class)
-    public ResponseEntity<String> handleGenericException(Exception ex) {
-        return new ResponseEntity<>("Ocurrió un error inesperado: \n\n" + 
-              "  Mensaje: " + ex.getMessage() + " \n\n " + 
-        	  "  Causa: " + ex.getCause()	+ " \n\n " + 
-              pilaErrores(), HttpStatus.INTERNAL_SERVER_ERROR);
+    public ResponseEntity<RespuestaError> handleGenericException(Exception ex) {
+        LOG.error("Error inesperado", ex);
+        if (!esDesarrollo()) {
+            return contar(ex, ERROR_INTERNO);
+        }
+        return contar(ex, new ResponseEntity<>(new RespuestaError("ERROR_INTERNO", HttpStatus.INTERNAL_SERVER_ERROR.value(),
+                "Ocurrió un error inesperado: " + ex.getMessage() + " - Causa: " + ex.getCause(), pilaErrores()),
+                HttpStatus.INTERNAL_SERVER_ERROR));
     }
+
+	private ResponseEntity<RespuestaError> contar(Exception ex, ResponseEntity<RespuestaError> respuesta) {
+		Object clave = ex instanceof ErrorControlado ? ex : ex.getClass();
+		Counter contador = contadores.get(clave);
+		if (contador == null) {
+			contador = contadores.computeIfAbsent(clave, c -> Counter.builder("errores.respuestas")
+					.description("Respuestas de error por tipo de excepción")
+					.tag("excepcion", ex.getClass().getSimpleName())
+					.tag("codigo", respuesta.getBody().getCodigo())
+					.register(registro));
+		}
+		contador.increment();
+		return respuesta;
+	}
+
+	private static ResponseEntity<RespuestaError> respuesta(HttpStatus estado, String codigo, String mensaje) {
+		return new ResponseEntity<>(new RespuestaError(codigo, estado.value(), mensaje), estado);
+	}
     
     //Se supone que el método pilaErrores() no debe salir a producción,
     // pero es útil para depurar errores en desarrollo.
@@ -83,15 +147,10 @@ public class GlobalExceptionHandler {
     // Declarar una variable de entorno en application.properties llamada app.usuario.desarrollo 
     @Autowired
     private Environment miVariableEntorno;
+	private boolean esDesarrollo() {
+		return "desarrollo".equals(miVariableEntorno.getProperty("app.usuario.desarrollo"));
+	}
 	private String pilaErrores() {
-		String VariableEntorno = miVariableEntorno.getProperty("app.usuario.desarrollo");
-		if (VariableEntorno == null || 
-				VariableEntorno.isEmpty() ||
-				VariableEntorno.isBlank() ||
-				!VariableEntorno.equals("desarrollo")) {
-			return "No es un usuario de desarollo, para ver más detalles de la pila de errores, "
-					+ "por favor, configura el usuario de desarrollo en application.properties.";
-		}
 		StringBuilder sb = new StringBuilder();
 		sb.append("\n");
 		for (StackTraceElement element : Thread.currentThread().getStackTrace()) {
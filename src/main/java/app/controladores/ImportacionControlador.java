@@ -0,0 +1,57 @@
+package app.controladores;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import app.dto.ResultadoImportacion;
+import app.servicios.ServiciosImportacion;
+import jakarta.servlet.http.HttpServletRequest;
+
+////////////////////////////////////
+//// Controlador REST para la importación masiva de clientes y correos.
+//// El cuerpo se lee como un flujo (CSV o NDJSON), sin cargar el archivo completo en memoria.
+@RestController
+@RequestMapping("/importar")
+public class ImportacionControlador {
+
+	public ImportacionControlador() {
+		// Constructor vacío
+	}
+	@Autowired
+	private ServiciosImportacion serviciosImportacion;
+
+	// Alta masiva de clientes: líneas "dni,nombre,apellido" (CSV, encabezado opcional)
+	// o {"dni":..,"nombre":..,"apellido":..} (NDJSON)
+	@PostMapping(value = "/clientes", consumes = { "text/csv", CorreoControlador.NDJSON })
+	public ResultadoImportacion importarClientes(HttpServletRequest request) throws IOException {
+		try (BufferedReader lector = lector(request)) {
+			return serviciosImportacion.importarClientes(lector, esNdjson(request));
+		}
+	}
+
+	// Alta masiva de correos: líneas "dni,correo" (CSV, encabezado opcional)
+	// o {"dni":..,"correo":..} (NDJSON)
+	@PostMapping(value = "/correos", consumes = { "text/csv", CorreoControlador.NDJSON })
+	public ResultadoImportacion importarCorreos(HttpServletRequest request) throws IOException {
+		try (BufferedReader lector = lector(request)) {
+			return serviciosImportacion.importarCorreos(lector, esNdjson(request));
+		}
+	}
+
+	private static BufferedReader lector(HttpServletRequest request) throws IOException {
+		return new BufferedReader(new InputStreamReader(request.getInputStream(), StandardCharsets.UTF_8));
+	}
+
+	private static boolean esNdjson(HttpServletRequest request) {
+		return MediaType.parseMediaType(request.getContentType())
+				.isCompatibleWith(MediaType.parseMediaType(CorreoControlador.NDJSON));
+	}
+}
@@ -0,0 +1,25 @@
+package app.controladores;
+
+import java.time.Duration;
+
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.context.request.async.AsyncWebRequest;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+
+// Tiempo máximo de una respuesta en streaming (StreamingResponseBody): las exportaciones y los
+// listados NDJSON pueden tardar mucho más que spring.mvc.async.request-timeout, el límite del
+// resto de las peticiones asíncronas. Se aplica solo a la petición actual, antes de devolver
+// el cuerpo (Spring lo aplica al iniciar el procesamiento asíncrono).
+final class TiempoStreaming {
+
+	private TiempoStreaming() {
+		// Solo métodos estáticos
+	}
+
+	static void aplicar(WebRequest peticion, Duration tiempo) {
+		AsyncWebRequest asincrona = WebAsyncUtils.getAsyncManager(peticion).getAsyncWebRequest();
+		if (asincrona != null) {
+			asincrona.setTimeout(tiempo.toMillis());
+		}
+	}
+}
@@ -0,0 +1,83 @@
+package app.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+// Cambio de una fila de cliente o de correo en el registro de cambios (ver RegistroCambios).
+// - secuencia: número creciente, sin huecos, asignado al registrar el cambio.
+// - entidad: "cliente" o "correo"; tipo: ALTA, MODIFICACION o BAJA.
+// - dniAnterior y correoAnterior: valores antes del cambio (en modificaciones y bajas de correos).
+// Los valores desconocidos o que no corresponden a la entidad se omiten del JSON.
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class CambioRegistrado {
+
+	private final long secuencia;
+	private final long instante;
+	private final String entidad;
+	private final String tipo;
+	private final Integer idCorreo;
+	private final String dniAnterior;
+	private final String dni;
+	private final String correoAnterior;
+	private final String correo;
+	private final String nombre;
+	private final String apellido;
+
+	public CambioRegistrado(long secuencia, long instante, String entidad, String tipo, Integer idCorreo,
+			String dniAnterior, String dni, String correoAnterior, String correo, String nombre, String apellido) {
+		this.secuencia = secuencia;
+		this.instante = instante;
+		this.entidad = entidad;
+		this.tipo = tipo;
+		this.idCorreo = idCorreo;
+		this.dniAnterior = dniAnterior;
+		this.dni = dni;
+		this.correoAnterior = correoAnterior;
+		this.correo = correo;
+		this.nombre = nombre;
+		this.apellido = apellido;
+	}
+
+	public long getSecuencia() {
+		return secuencia;
+	}
+
+	public long getInstante() {
+		return instante;
+	}
+
+	public String getEntidad() {
+		return entidad;
+	}
+
+	public String getTipo() {
+		return tipo;
+	}
+
+	public Integer getIdCorreo() {
+		return idCorreo;
+	}
+
+	public String getDniAnterior() {
+		return dniAnterior;
+	}
+
+	public String getDni() {
+		return dni;
+	}
+
+	public String getCorreoAnterior() {
+		return correoAnterior;
+	}
+
+	public String getCorreo() {
+		return correo;
+	}
+
+	public String getNombre() {
+		return nombre;
+	}
+
+	public String getApellido() {
+		return apellido;
+	}
+}
@@ -0,0 +1,21 @@
+package app.dto;
+
+// Cantidad de correos de una clave (un dni o un dominio), ver EstadisticasCorreos
+public class Cantidad {
+
+	private final String clave;
+	private final int cantidad;
+
+	public Cantidad(String clave, int cantidad) {
+		this.clave = clave;
+		this.cantidad = cantidad;
+	}
+
+	public String getClave() {
+		return clave;
+	}
+
+	public int getCantidad() {
+		return cantidad;
+	}
+}
@@ -0,0 +1,41 @@
+package app.dto;
+
+// Fila plana del join cliente ⋈ correo para la exportación.
+// Se construye directamente desde la consulta (no es una entidad administrada),
+// así recorrer millones de filas no llena el contexto de persistencia.
+public class ClienteCorreoFila {
+
+	private final String dni;
+	private final String nombre;
+	private final String apellido;
+	private final int idCorreo;
+	private final String correo;
+
+	public ClienteCorreoFila(String dni, String nombre, String apellido, int idCorreo, String correo) {
+		this.dni = dni;
+		this.nombre = nombre;
+		this.apellido = apellido;
+		this.idCorreo = idCorreo;
+		this.correo = correo;
+	}
+
+	public String getDni() {
+		return dni;
+	}
+
+	public String getNombre() {
+		return nombre;
+	}
+
+	public String getApellido() {
+		return apellido;
+	}
+
+	public int getIdCorreo() {
+		return idCorreo;
+	}
+
+	public String getCorreo() {
+		return correo;
+	}
+}
@@ -0,0 +1,42 @@
+package app.dto;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import app.entidades.Cliente06;
+import app.entidades.Correo06;
+
+// Respuesta normalizada de clientes y correos: cada cliente aparece una sola vez
+// y los correos lo referencian por dni, en lugar de repetir el Cliente06 en cada correo.
+public class ClientesCorreos {
+
+	private final List<Cliente06> clientes;
+	private final List<CorreoDeCliente> correos;
+
+	public ClientesCorreos(List<Cliente06> clientes, List<CorreoDeCliente> correos) {
+		this.clientes = clientes;
+		this.correos = correos;
+	}
+
+	// Normaliza una lista de correos con su cliente cargado
+	public static ClientesCorreos de(List<Correo06> lista) {
+		Map<String, Cliente06> clientes = new LinkedHashMap<>();
+		List<CorreoDeCliente> correos = new ArrayList<>(lista.size());
+		for (Correo06 correo : lista) {
+			Cliente06 cliente = correo.getCliente06();
+			clientes.putIfAbsent(cliente.getDni(), cliente);
+			correos.add(new CorreoDeCliente(correo.getIdCorreo(), correo.getCorreo(), cliente.getDni()));
+		}
+		return new ClientesCorreos(new ArrayList<>(clientes.values()), correos);
+	}
+
+	public List<Cliente06> getClientes() {
+		return clientes;
+	}
+
+	public List<CorreoDeCliente> getCorreos() {
+		return correos;
+	}
+}
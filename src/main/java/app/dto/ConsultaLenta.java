@@ -0,0 +1,42 @@
+package app.dto;
+
+// Sentencia SQL registrada por el trazado de consultas lentas
+public class ConsultaLenta {
+
+	private final String sentencia;
+	private final int parametros;
+	private final long duracionMs;
+	private final String origen;
+	private final long instante;
+
+	public ConsultaLenta(String sentencia, int parametros, long duracionMs, String origen, long instante) {
+		this.sentencia = sentencia;
+		this.parametros = parametros;
+		this.duracionMs = duracionMs;
+		this.origen = origen;
+		this.instante = instante;
+	}
+
+	public String getSentencia() {
+		return sentencia;
+	}
+
+	// Cantidad de parámetros enlazados (en un lote, la suma de todas las filas)
+	public int getParametros() {
+		return parametros;
+	}
+
+	public long getDuracionMs() {
+		return duracionMs;
+	}
+
+	// Método del controlador que originó la sentencia, o "sin petición"
+	public String getOrigen() {
+		return origen;
+	}
+
+	// Momento de la ejecución, en milisegundos desde epoch
+	public long getInstante() {
+		return instante;
+	}
+}
@@ -0,0 +1,27 @@
+package app.dto;
+
+// Correo de la respuesta normalizada (ver ClientesCorreos): el cliente se indica por su dni
+public class CorreoDeCliente {
+
+	private final int idCorreo;
+	private final String correo;
+	private final String dni;
+
+	public CorreoDeCliente(int idCorreo, String correo, String dni) {
+		this.idCorreo = idCorreo;
+		this.correo = correo;
+		this.dni = dni;
+	}
+
+	public int getIdCorreo() {
+		return idCorreo;
+	}
+
+	public String getCorreo() {
+		return correo;
+	}
+
+	public String getDni() {
+		return dni;
+	}
+}
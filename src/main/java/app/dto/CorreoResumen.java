@@ -0,0 +1,21 @@
+package app.dto;
+
+// Correo sin los datos del cliente (resultado de las búsquedas del índice de correos)
+public class CorreoResumen {
+
+	private final int idCorreo;
+	private final String correo;
+
+	public CorreoResumen(int idCorreo, String correo) {
+		this.idCorreo = idCorreo;
+		this.correo = correo;
+	}
+
+	public int getIdCorreo() {
+		return idCorreo;
+	}
+
+	public String getCorreo() {
+		return correo;
+	}
+}
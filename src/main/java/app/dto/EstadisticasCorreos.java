@@ -0,0 +1,42 @@
+package app.dto;
+
+import java.util.List;
+
+// Totales de la tabla correo y los clientes y dominios con más correos (ver ContadoresCorreos)
+public class EstadisticasCorreos {
+
+	private final int totalCorreos;
+	private final int clientesConCorreos;
+	private final int dominios;
+	private final List<Cantidad> topClientes;
+	private final List<Cantidad> topDominios;
+
+	public EstadisticasCorreos(int totalCorreos, int clientesConCorreos, int dominios, List<Cantidad> topClientes,
+			List<Cantidad> topDominios) {
+		this.totalCorreos = totalCorreos;
+		this.clientesConCorreos = clientesConCorreos;
+		this.dominios = dominios;
+		this.topClientes = topClientes;
+		this.topDominios = topDominios;
+	}
+
+	public int getTotalCorreos() {
+		return totalCorreos;
+	}
+
+	public int getClientesConCorreos() {
+		return clientesConCorreos;
+	}
+
+	public int getDominios() {
+		return dominios;
+	}
+
+	public List<Cantidad> getTopClientes() {
+		return topClientes;
+	}
+
+	public List<Cantidad> getTopDominios() {
+		return topDominios;
+	}
+}
@@ -0,0 +1,38 @@
+package app.dto;
+
+// Estado de una escritura diferida de correo, consultado por su número de ticket
+public class EstadoEscritura {
+
+	public enum Estado {
+		PENDIENTE, GUARDADO, ERROR
+	}
+
+	private final long ticket;
+	private final Estado estado;
+	private final int idCorreo;
+	private final String mensaje;
+
+	public EstadoEscritura(long ticket, Estado estado, int idCorreo, String mensaje) {
+		this.ticket = ticket;
+		this.estado = estado;
+		this.idCorreo = idCorreo;
+		this.mensaje = mensaje;
+	}
+
+	public long getTicket() {
+		return ticket;
+	}
+
+	public Estado getEstado() {
+		return estado;
+	}
+
+	// idCorreo asignado (0 mientras un alta está pendiente)
+	public int getIdCorreo() {
+		return idCorreo;
+	}
+
+	public String getMensaje() {
+		return mensaje;
+	}
+}
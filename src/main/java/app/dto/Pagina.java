@@ -0,0 +1,25 @@
+package app.dto;
+
+import java.util.List;
+
+// Página de resultados con paginación por cursor (keyset).
+// El cursor "siguiente" es la última clave devuelta; se envía en el parámetro "desde"
+// para pedir la página siguiente. Si es null no hay más registros.
+public class Pagina<T> {
+
+	private final List<T> elementos;
+	private final String siguiente;
+
+	public Pagina(List<T> elementos, String siguiente) {
+		this.elementos = elementos;
+		this.siguiente = siguiente;
+	}
+
+	public List<T> getElementos() {
+		return elementos;
+	}
+
+	public String getSiguiente() {
+		return siguiente;
+	}
+}
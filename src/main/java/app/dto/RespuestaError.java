@@ -0,0 +1,45 @@
+package app.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+// Cuerpo JSON de las respuestas de error.
+// - codigo: identificador estable del error, para que los clientes no dependan del texto.
+// - estado: código HTTP de la respuesta.
+// - mensaje: descripción para las personas.
+// - detalle: pila de llamadas, solo para el usuario de desarrollo (null en los demás casos).
+// Los errores frecuentes usan instancias constantes (ver ErrorControlado y GlobalExceptionHandler).
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class RespuestaError {
+
+	private final String codigo;
+	private final int estado;
+	private final String mensaje;
+	private final String detalle;
+
+	public RespuestaError(String codigo, int estado, String mensaje) {
+		this(codigo, estado, mensaje, null);
+	}
+
+	public RespuestaError(String codigo, int estado, String mensaje, String detalle) {
+		this.codigo = codigo;
+		this.estado = estado;
+		this.mensaje = mensaje;
+		this.detalle = detalle;
+	}
+
+	public String getCodigo() {
+		return codigo;
+	}
+
+	public int getEstado() {
+		return estado;
+	}
+
+	public String getMensaje() {
+		return mensaje;
+	}
+
+	public String getDetalle() {
+		return detalle;
+	}
+}
@@ -0,0 +1,70 @@
+package app.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Resumen de una importación masiva: filas leídas, guardadas y errores por fila.
+// Se guardan como máximo "erroresMaximos" detalles; el total de errores siempre se cuenta.
+public class ResultadoImportacion {
+
+	private long leidas;
+	private long guardadas;
+	private long conErrores;
+	private final List<ErrorFila> errores = new ArrayList<>();
+	private final int erroresMaximos;
+
+	public ResultadoImportacion(int erroresMaximos) {
+		this.erroresMaximos = erroresMaximos;
+	}
+
+	public void sumarLeida() {
+		leidas++;
+	}
+
+	public void sumarGuardadas(int cantidad) {
+		guardadas += cantidad;
+	}
+
+	public void agregarError(long linea, String mensaje) {
+		conErrores++;
+		if (errores.size() < erroresMaximos) {
+			errores.add(new ErrorFila(linea, mensaje));
+		}
+	}
+
+	public long getLeidas() {
+		return leidas;
+	}
+
+	public long getGuardadas() {
+		return guardadas;
+	}
+
+	public long getConErrores() {
+		return conErrores;
+	}
+
+	public List<ErrorFila> getErrores() {
+		return errores;
+	}
+
+	// Error de una fila del archivo importado (la línea empieza en 1)
+	public static class ErrorFila {
+
+		private final long linea;
+		private final String mensaje;
+
+		public ErrorFila(long linea, String mensaje) {
+			this.linea = linea;
+			this.mensaje = mensaje;
+		}
+
+		public long getLinea() {
+			return linea;
+		}
+
+		public String getMensaje() {
+			return mensaje;
+		}
+	}
+}
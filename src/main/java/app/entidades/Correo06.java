@@ -1,5 +1,4 @@
 package app.entidades;
-import jakarta.persistence.CascadeType;
 
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
@@ -7,14 +6,25 @@ import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.NamedAttributeNode;
+import jakarta.persistence.NamedEntityGraph;
 import jakarta.persistence.Table;
+import jakarta.persistence.TableGenerator;
 
 @Entity
-@Table(name = "correo")
+// Plan de carga para los casos que necesitan los datos del cliente junto con el correo
+@NamedEntityGraph(name = "Correo06.cliente06", attributeNodes = @NamedAttributeNode("cliente06"))
+@Table(name = "correo", indexes = {
+		// Índice sobre la clave foránea para las búsquedas de correos por DNI del cliente
+		@Index(name = "idx_correo_cliente06DNIfk", columnList = "cliente06DNIfk") })
 public class Correo06 {
 	
+    //Cantidad de ids que se reservan por cada acceso a la tabla correo_secuencia
+    public static final int ALLOCATION_SIZE = 50;
+	
     public Correo06() {
         super();
     }
@@ -22,7 +32,11 @@ public class Correo06 {
     //Mapeo de la tabla correo  //////////////////
     @Id
     @Column(name = "idCorreo", length = 6)
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    //IDENTITY desactiva los inserts por lotes de JDBC (Hibernate necesita el id de cada fila al insertar).
+    //Con una tabla de secuencia se reservan bloques de ALLOCATION_SIZE ids y los inserts se agrupan.
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "correo_secuencia")
+    @TableGenerator(name = "correo_secuencia", table = "correo_secuencia", pkColumnName = "nombre",
+            valueColumnName = "siguiente", pkColumnValue = "correo", allocationSize = Correo06.ALLOCATION_SIZE)
     private int idCorreo;
     @Column(name = "correo", length = 100, unique=true, nullable=false)
     private String correo;
@@ -34,7 +48,9 @@ public class Correo06 {
     /////////////////////////////////////////////////////
     @JoinColumn(name = "cliente06DNIfk", referencedColumnName = "dni", nullable=false)
     
-    @ManyToOne(fetch = FetchType.EAGER, cascade={CascadeType.ALL}) //Un cliente muchos correos
+    //LAZY: el cliente se carga solo cuando se pide con el grafo "Correo06.cliente06" o con join fetch.
+    //Sin cascada: guardar un correo no debe hacer merge del cliente, el cliente se administra aparte.
+    @ManyToOne(fetch = FetchType.LAZY) //Un cliente muchos correos
     private Cliente06 cliente06=null; //Se creará la columna foránea en la tabla correo.
     //Fin mapeo //////////////////////////////////////
     
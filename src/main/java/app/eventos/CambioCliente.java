@@ -0,0 +1,39 @@
+package app.eventos;
+
+// Evento publicado por ServiciosCliente después de cada alta, modificación o baja de un cliente.
+// Lo consumen, después del commit, los componentes con datos derivados de la tabla cliente
+// (versión para los ETag, registro de cambios). En una baja el nombre y el apellido son null.
+public class CambioCliente {
+
+	public enum Tipo {
+		ALTA, MODIFICACION, BAJA
+	}
+
+	private final Tipo tipo;
+	private final String dni;
+	private final String nombre;
+	private final String apellido;
+
+	public CambioCliente(Tipo tipo, String dni, String nombre, String apellido) {
+		this.tipo = tipo;
+		this.dni = dni;
+		this.nombre = nombre;
+		this.apellido = apellido;
+	}
+
+	public Tipo getTipo() {
+		return tipo;
+	}
+
+	public String getDni() {
+		return dni;
+	}
+
+	public String getNombre() {
+		return nombre;
+	}
+
+	public String getApellido() {
+		return apellido;
+	}
+}
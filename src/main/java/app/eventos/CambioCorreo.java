@@ -0,0 +1,40 @@
+package app.eventos;
+
+// Evento publicado por ServiciosCorreo después de cada alta, modificación o baja de un correo.
+// Lo consumen los componentes que mantienen datos derivados de la tabla correo
+// (por ejemplo el índice de búsqueda) con @TransactionalEventListener, después del commit.
+// En una baja por idCorreo el correo y el dni pueden ser null (solo se conoce el id).
+public class CambioCorreo {
+
+	public enum Tipo {
+		ALTA, MODIFICACION, BAJA
+	}
+
+	private final Tipo tipo;
+	private final int idCorreo;
+	private final String correo;
+	private final String dni;
+
+	public CambioCorreo(Tipo tipo, int idCorreo, String correo, String dni) {
+		this.tipo = tipo;
+		this.idCorreo = idCorreo;
+		this.correo = correo;
+		this.dni = dni;
+	}
+
+	public Tipo getTipo() {
+		return tipo;
+	}
+
+	public int getIdCorreo() {
+		return idCorreo;
+	}
+
+	public String getCorreo() {
+		return correo;
+	}
+
+	public String getDni() {
+		return dni;
+	}
+}
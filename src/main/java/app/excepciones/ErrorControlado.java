@@ -0,0 +1,41 @@
+package app.excepciones;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import app.dto.RespuestaError;
+
+// Errores esperados que cortan el flujo de una petición (id inválido, registro inexistente).
+// No son fallas del programa: no capturan la pila de llamadas (writableStackTrace = false)
+// y cada uno es una instancia constante, que se lanza sin crear objetos nuevos.
+// GlobalExceptionHandler responde con la respuesta ya armada de cada error.
+public class ErrorControlado extends RuntimeException {
+
+	private static final long serialVersionUID = 1L;
+
+	public static final ErrorControlado ID_INVALIDO = new ErrorControlado(HttpStatus.BAD_REQUEST, "ID_INVALIDO",
+			"El idCorreo debe ser un número entero positivo.");
+	public static final ErrorControlado CORREO_NO_ENCONTRADO = new ErrorControlado(HttpStatus.NOT_FOUND,
+			"CORREO_NO_ENCONTRADO", "No existe un correo con ese idCorreo.");
+	public static final ErrorControlado CLIENTE_NO_ENCONTRADO = new ErrorControlado(HttpStatus.NOT_FOUND,
+			"CLIENTE_NO_ENCONTRADO", "No existe un cliente con ese DNI.");
+	public static final ErrorControlado CAMBIOS_NO_DISPONIBLES = new ErrorControlado(HttpStatus.GONE,
+			"CAMBIOS_NO_DISPONIBLES", "Los cambios pedidos ya no están en el registro: volver a leer las tablas completas.");
+	public static final ErrorControlado DEMASIADAS_SUSCRIPCIONES = new ErrorControlado(HttpStatus.SERVICE_UNAVAILABLE,
+			"DEMASIADAS_SUSCRIPCIONES", "Hay demasiadas suscripciones a los cambios abiertas: reintentar más tarde.");
+
+	private final transient ResponseEntity<RespuestaError> respuesta;
+
+	private ErrorControlado(HttpStatus estado, String codigo, String mensaje) {
+		super(mensaje, null, false, false);
+		this.respuesta = new ResponseEntity<>(new RespuestaError(codigo, estado.value(), mensaje), estado);
+	}
+
+	public String getCodigo() {
+		return respuesta.getBody().getCodigo();
+	}
+
+	public ResponseEntity<RespuestaError> getRespuesta() {
+		return respuesta;
+	}
+}
@@ -0,0 +1,93 @@
+package app.migraciones;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import org.flywaydb.core.api.MigrationVersion;
+import org.flywaydb.core.api.migration.Context;
+import org.flywaydb.core.api.migration.JavaMigration;
+import org.springframework.stereotype.Component;
+
+// Migración V2: índices y clave foránea de la tabla correo en las bases creadas antes de Flyway.
+// Con ddl-auto=update estos índices dependían de la versión de la aplicación que creó la tabla.
+// MySQL no tiene "create index if not exists": se consultan los metadatos de JDBC y solo
+// se crea lo que falta, comparando por columna (los nombres generados por Hibernate varían).
+// En una base nueva V1 ya los creó y esta migración no hace nada.
+// Spring Boot pasa a Flyway los beans JavaMigration.
+@Component
+public class IndicesCorreo implements JavaMigration {
+
+	public IndicesCorreo() {
+		// Constructor vacío
+	}
+
+	@Override
+	public MigrationVersion getVersion() {
+		return MigrationVersion.fromVersion("2");
+	}
+
+	@Override
+	public String getDescription() {
+		return "indices correo";
+	}
+
+	@Override
+	public Integer getChecksum() {
+		return null;
+	}
+
+	@Override
+	public boolean canExecuteInTransaction() {
+		return true;
+	}
+
+	@Override
+	public void migrate(Context contexto) throws Exception {
+		Connection conexion = contexto.getConnection();
+		DatabaseMetaData metadatos = conexion.getMetaData();
+		// H2 guarda los nombres en mayúsculas; MySQL como se crearon
+		String tabla = metadatos.storesUpperCaseIdentifiers() ? "CORREO" : "correo";
+		try (Statement sentencia = conexion.createStatement()) {
+			if (!tieneIndice(metadatos, conexion, tabla, "correo", true)) {
+				sentencia.execute("create unique index uk_correo_correo on correo (correo)");
+			}
+			if (!tieneIndice(metadatos, conexion, tabla, "cliente06dnifk", false)) {
+				sentencia.execute("create index idx_correo_cliente06DNIfk on correo (cliente06dnifk)");
+			}
+			if (!tieneClaveForanea(metadatos, conexion, tabla, "cliente06dnifk")) {
+				sentencia.execute("alter table correo add constraint fk_correo_cliente "
+						+ "foreign key (cliente06dnifk) references cliente (dni)");
+			}
+		}
+	}
+
+	// true si algún índice empieza por la columna (y es único, si se pide)
+	private static boolean tieneIndice(DatabaseMetaData metadatos, Connection conexion, String tabla, String columna,
+			boolean unico) throws SQLException {
+		try (ResultSet indices = metadatos.getIndexInfo(conexion.getCatalog(), conexion.getSchema(), tabla, unico,
+				false)) {
+			while (indices.next()) {
+				if (indices.getShort("ORDINAL_POSITION") == 1 && columna.equalsIgnoreCase(indices.getString("COLUMN_NAME"))
+						&& (!unico || !indices.getBoolean("NON_UNIQUE"))) {
+					return true;
+				}
+			}
+		}
+		return false;
+	}
+
+	private static boolean tieneClaveForanea(DatabaseMetaData metadatos, Connection conexion, String tabla,
+			String columna) throws SQLException {
+		try (ResultSet claves = metadatos.getImportedKeys(conexion.getCatalog(), conexion.getSchema(), tabla)) {
+			while (claves.next()) {
+				if (columna.equalsIgnoreCase(claves.getString("FKCOLUMN_NAME"))) {
+					return true;
+				}
+			}
+		}
+		return false;
+	}
+}
@@ -1,6 +1,12 @@
 package app.repositorios;
 
+import java.util.List;
+
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import app.entidades.Cliente06;
@@ -26,4 +32,23 @@ public interface ClientesRepositorio extends JpaRepository<Cliente06, String> {
 	
 	//Esta clase permite escalar la entidad Cliente06 en el futuro
 	// agregando nuevas funciones de negocio o consultas específicas
+	
+	// Paginación por cursor (keyset) sobre la clave primaria dni:
+	// cada página empieza después del último dni devuelto, sin OFFSET.
+	List<Cliente06> findByDniGreaterThanOrderByDniAsc(String dni, Limit limite);
+	
+	// Todos los DNI existentes, sin cargar las entidades (validación de importaciones masivas)
+	@Query("select c.dni from Cliente06 c")
+	List<String> listarDnis();
+	
+	// Actualización y borrado en una sola sentencia, sin leer la entidad antes.
+	// Devuelven la cantidad de filas afectadas (0 si no existe el cliente).
+	// Deben ejecutarse dentro de una transacción (ver ServiciosCliente).
+	@Modifying
+	@Query("update Cliente06 c set c.nombre = :nombre, c.apellido = :apellido where c.dni = :dni")
+	int actualizarDatos(@Param("dni") String dni, @Param("nombre") String nombre, @Param("apellido") String apellido);
+	
+	@Modifying
+	@Query("delete from Cliente06 c where c.dni = :dni")
+	int borrarPorDni(@Param("dni") String dni);
 }
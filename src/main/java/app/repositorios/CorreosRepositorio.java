@@ -1,10 +1,25 @@
 package app.repositorios;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import jakarta.persistence.QueryHint;
+
+import app.dto.ClienteCorreoFila;
+import app.dto.CorreoDeCliente;
+import app.dto.CorreoResumen;
 import app.entidades.Correo06;
 
 @Repository
@@ -20,5 +35,72 @@ public interface CorreosRepositorio extends JpaRepository<Correo06, Integer> {
 	
 	//Preguntar a la IA si es necesario agregar algo más
 	
+	// Búsqueda por idCorreo que trae también el cliente (grafo "Correo06.cliente06"),
+	// para los mensajes de respuesta de actualizar y borrar que muestran sus datos.
+	@EntityGraph(value = "Correo06.cliente06")
+	Optional<Correo06> findConClienteByIdCorreo(int idCorreo);
+	
+	// Consultas filtradas por la clave foránea cliente06DNIfk.
+	// El filtro se resuelve en MySQL usando el índice idx_correo_cliente06DNIfk,
+	// en lugar de traer toda la tabla correo y filtrar en memoria con un stream.
+	@Query("select c from Correo06 c join fetch c.cliente06 cl where cl.dni = :dni")
+	List<Correo06> buscarPorDniCliente(@Param("dni") String dni);
+	
+	// Intersección de correos y clientes (clave primaria de cliente = clave foránea de correo),
+	// resuelta con un único join en la base de datos.
+	@Query("select c from Correo06 c join fetch c.cliente06")
+	List<Correo06> buscarCorreosConClientes();
+	
+	// Paginación por cursor (keyset) sobre la clave primaria idCorreo:
+	// cada página empieza después del último idCorreo devuelto, sin OFFSET.
+	@Query("select c from Correo06 c join fetch c.cliente06 where c.idCorreo > :desde order by c.idCorreo")
+	List<Correo06> buscarPagina(@Param("desde") int desde, Limit limite);
+	
+	// Recorrido de toda la tabla con un cursor del lado del servidor.
+	// Con useCursorFetch=true en la URL de conexión, mysql-connector-j trae las filas
+	// en bloques del tamaño del fetch size, sin cargar el resultado completo en memoria.
+	// El Stream debe consumirse dentro de una transacción y cerrarse al terminar.
+	@QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+	@Query("select c from Correo06 c join fetch c.cliente06 order by c.idCorreo")
+	Stream<Correo06> recorrerCorreosConClientes();
+	
+	// Recorrido del join cliente ⋈ correo como filas planas (exportación).
+	// Al no ser entidades, Hibernate no las guarda en el contexto de persistencia.
+	@QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+	@Query("select new app.dto.ClienteCorreoFila(cl.dni, cl.nombre, cl.apellido, c.idCorreo, c.correo) "
+			+ "from Correo06 c join c.cliente06 cl order by c.idCorreo")
+	Stream<ClienteCorreoFila> recorrerClientesCorreos();
 	
+	// Recorrido de idCorreo y correo de toda la tabla (construcción del índice de búsqueda)
+	@QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+	@Query("select new app.dto.CorreoResumen(c.idCorreo, c.correo) from Correo06 c")
+	Stream<CorreoResumen> recorrerResumenes();
+
+	// Recorrido de idCorreo, correo y dni de toda la tabla (contadores por cliente y dominio).
+	// El dni es la clave foránea de la tabla correo: no hace falta el join con cliente.
+	@QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+	@Query("select new app.dto.CorreoDeCliente(c.idCorreo, c.correo, c.cliente06.dni) from Correo06 c")
+	Stream<CorreoDeCliente> recorrerCorreosDeClientes();
+	
+	// Correos de la lista que ya existen en la tabla (columna con índice único)
+	@Query("select c.correo from Correo06 c where c.correo in :correos")
+	List<String> buscarCorreosExistentes(@Param("correos") Collection<String> correos);
+
+	// Existencia de un correo, resuelta con el índice único de la columna correo
+	boolean existsByCorreo(String correo);
+
+	// Correos (con su cliente) de una colección de idCorreo, ver ServiciosCorreo.buscarPorIds
+	@Query("select c from Correo06 c join fetch c.cliente06 where c.idCorreo in :ids")
+	List<Correo06> buscarPorIds(@Param("ids") Collection<Integer> ids);
+
+	// Actualización y borrado en una sola sentencia, sin leer la entidad antes.
+	// Devuelven la cantidad de filas afectadas (0 si no existe el correo).
+	// Deben ejecutarse dentro de una transacción (ver ServiciosCorreo).
+	@Modifying
+	@Query("update Correo06 c set c.correo = :correo where c.idCorreo = :idCorreo")
+	int actualizarCorreo(@Param("idCorreo") int idCorreo, @Param("correo") String correo);
+
+	@Modifying
+	@Query("delete from Correo06 c where c.idCorreo = :idCorreo")
+	int borrarPorId(@Param("idCorreo") int idCorreo);
 }
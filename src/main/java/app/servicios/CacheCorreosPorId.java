@@ -0,0 +1,237 @@
+package app.servicios;
+
+import java.util.Arrays;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import app.entidades.Cliente06;
+import app.entidades.Correo06;
+import app.eventos.CambioCorreo;
+
+@Component
+public class CacheCorreosPorId {
+	//Caché LRU de correos por idCorreo, delante de CorreosRepositorio (ver ServiciosCorreo.buscarPorId).
+	// Clave int sin Integer: una tabla hash de direccionamiento abierto (sondeo lineal) guarda
+	// la posición de cada entrada; las entradas son arreglos paralelos creados al iniciar
+	// con la capacidad máxima, así que guardar y buscar no crean objetos de la estructura.
+	// El orden de uso es una lista doblemente enlazada de posiciones (anterior/siguiente):
+	// con la caché llena se reemplaza la entrada usada hace más tiempo.
+	//Solo se guardan idCorreo, correo y dni: los datos del cliente se toman de la caché de
+	// clientes, que ServiciosCliente invalida en cada cambio.
+	//Escritura: cada CambioCorreo (alta, modificación, baja) quita la entrada después del commit.
+	//Capacidad 0 desactiva la caché.
+
+	private static final int VACIO = -1;
+
+	private final int capacidad;
+	// Tabla hash: posición de la entrada + 1 (0 = celda libre)
+	private final int[] tabla;
+	private final int mascara;
+	// Entradas
+	private final int[] ids;
+	private final String[] correos;
+	private final String[] dnis;
+	private final int[] anterior;
+	private final int[] siguiente;
+	private int masReciente = VACIO;
+	private int menosReciente = VACIO;
+	private int tamanio;
+	// Cantidad de invalidaciones: una lectura de la base que empezó antes de una invalidación
+	// no se guarda (podría traer el valor anterior al cambio)
+	private long invalidaciones;
+
+	public CacheCorreosPorId(@Value("${app.cache-correos.capacidad:10000}") int capacidad) {
+		this.capacidad = capacidad;
+		// Factor de carga máximo 0,5
+		int celdas = Integer.highestOneBit(Math.max(capacidad, 1) * 4 - 1);
+		this.tabla = new int[celdas];
+		this.mascara = celdas - 1;
+		this.ids = new int[capacidad];
+		this.correos = new String[capacidad];
+		this.dnis = new String[capacidad];
+		this.anterior = new int[capacidad];
+		this.siguiente = new int[capacidad];
+	}
+
+	// Correo en caché (con un cliente que solo tiene el dni), o null si no está
+	public synchronized Correo06 buscar(int idCorreo) {
+		int celda = celda(idCorreo);
+		if (celda < 0) {
+			return null;
+		}
+		int posicion = tabla[celda] - 1;
+		alFrente(posicion);
+		Cliente06 cliente = new Cliente06();
+		cliente.setDni(dnis[posicion]);
+		Correo06 correo = new Correo06(correos[posicion], cliente);
+		correo.setIdCorreo(idCorreo);
+		return correo;
+	}
+
+	// Valor a pasar a guardar, tomado antes de leer el correo de la base
+	public synchronized long invalidaciones() {
+		return invalidaciones;
+	}
+
+	public synchronized void guardar(int idCorreo, String correo, String dni, long invalidacionesAlLeer) {
+		if (capacidad == 0 || invalidacionesAlLeer != invalidaciones) {
+			return;
+		}
+		int celda = celda(idCorreo);
+		int posicion;
+		if (celda >= 0) {
+			posicion = tabla[celda] - 1;
+			desenlazar(posicion);
+		} else {
+			if (tamanio == capacidad) {
+				// Llena: se reutiliza la posición de la entrada usada hace más tiempo
+				posicion = menosReciente;
+				quitarDeTabla(celda(ids[posicion]));
+				desenlazar(posicion);
+			} else {
+				posicion = tamanio++;
+			}
+			ids[posicion] = idCorreo;
+			int libre = inicio(idCorreo);
+			while (tabla[libre] != 0) {
+				libre = (libre + 1) & mascara;
+			}
+			tabla[libre] = posicion + 1;
+		}
+		correos[posicion] = correo;
+		dnis[posicion] = dni;
+		enlazarAlFrente(posicion);
+	}
+
+	public synchronized void quitar(int idCorreo) {
+		invalidaciones++;
+		int celda = celda(idCorreo);
+		if (celda < 0) {
+			return;
+		}
+		int posicion = tabla[celda] - 1;
+		quitarDeTabla(celda);
+		desenlazar(posicion);
+		// La última posición ocupada pasa al lugar libre: las entradas quedan contiguas
+		int ultima = --tamanio;
+		if (posicion != ultima) {
+			mover(ultima, posicion);
+		}
+		correos[ultima] = null;
+		dnis[ultima] = null;
+	}
+
+	public synchronized void vaciar() {
+		invalidaciones++;
+		Arrays.fill(tabla, 0);
+		Arrays.fill(correos, null);
+		Arrays.fill(dnis, null);
+		masReciente = VACIO;
+		menosReciente = VACIO;
+		tamanio = 0;
+	}
+
+	public synchronized int tamanio() {
+		return tamanio;
+	}
+
+	@TransactionalEventListener(fallbackExecution = true)
+	public void alCambiarCorreo(CambioCorreo cambio) {
+		quitar(cambio.getIdCorreo());
+	}
+
+	// Celda de la tabla con la clave, o -1 si no está
+	private int celda(int idCorreo) {
+		int celda = inicio(idCorreo);
+		int valor;
+		while ((valor = tabla[celda]) != 0) {
+			if (ids[valor - 1] == idCorreo) {
+				return celda;
+			}
+			celda = (celda + 1) & mascara;
+		}
+		return -1;
+	}
+
+	private int inicio(int idCorreo) {
+		// Los idCorreo son consecutivos: se mezclan los bits para repartirlos en la tabla
+		int h = idCorreo * 0x9E3779B9;
+		return (h ^ (h >>> 16)) & mascara;
+	}
+
+	// Borrado en sondeo lineal: se corren hacia atrás las claves que quedarían inalcanzables
+	private void quitarDeTabla(int celda) {
+		int libre = celda;
+		int actual = celda;
+		while (true) {
+			actual = (actual + 1) & mascara;
+			int valor = tabla[actual];
+			if (valor == 0) {
+				break;
+			}
+			int deseada = inicio(ids[valor - 1]);
+			// La clave puede ocupar la celda libre si su celda deseada no está entre libre y actual
+			if (((actual - deseada) & mascara) >= ((actual - libre) & mascara)) {
+				tabla[libre] = valor;
+				libre = actual;
+			}
+		}
+		tabla[libre] = 0;
+	}
+
+	// Copia la entrada de la posición "desde" a "hacia" y actualiza la tabla y la lista
+	private void mover(int desde, int hacia) {
+		tabla[celda(ids[desde])] = hacia + 1;
+		ids[hacia] = ids[desde];
+		correos[hacia] = correos[desde];
+		dnis[hacia] = dnis[desde];
+		anterior[hacia] = anterior[desde];
+		siguiente[hacia] = siguiente[desde];
+		if (anterior[hacia] != VACIO) {
+			siguiente[anterior[hacia]] = hacia;
+		} else {
+			masReciente = hacia;
+		}
+		if (siguiente[hacia] != VACIO) {
+			anterior[siguiente[hacia]] = hacia;
+		} else {
+			menosReciente = hacia;
+		}
+	}
+
+	private void alFrente(int posicion) {
+		if (posicion != masReciente) {
+			desenlazar(posicion);
+			enlazarAlFrente(posicion);
+		}
+	}
+
+	private void desenlazar(int posicion) {
+		int a = anterior[posicion];
+		int s = siguiente[posicion];
+		if (a != VACIO) {
+			siguiente[a] = s;
+		} else {
+			masReciente = s;
+		}
+		if (s != VACIO) {
+			anterior[s] = a;
+		} else {
+			menosReciente = a;
+		}
+	}
+
+	private void enlazarAlFrente(int posicion) {
+		anterior[posicion] = VACIO;
+		siguiente[posicion] = masReciente;
+		if (masReciente != VACIO) {
+			anterior[masReciente] = posicion;
+		}
+		masReciente = posicion;
+		if (menosReciente == VACIO) {
+			menosReciente = posicion;
+		}
+	}
+}
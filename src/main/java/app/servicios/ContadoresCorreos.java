@@ -0,0 +1,125 @@
+package app.servicios;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import app.dto.Cantidad;
+import app.dto.EstadisticasCorreos;
+import app.eventos.CambioCorreo;
+import jakarta.annotation.PostConstruct;
+
+@Service
+public class ContadoresCorreos implements ObservadorIndiceCorreos {
+	//Contadores en memoria de la tabla correo: cantidad de correos por dni y por dominio.
+	// Las consultas de un dni o de un dominio leen un mapa (O(1)), sin consultar MySQL.
+	// - porDni y porDominio: clave -> cantidad de correos. Una clave sin correos se quita.
+	//Se construye al iniciar con un solo recorrido de idCorreo, correo y dni (sin cargar
+	// entidades) y se mantiene con los cambios que aplica IndiceCorreos: el índice ya guarda
+	// el correo y el dni de cada idCorreo y pasa los valores anteriores, así que aquí no se
+	// repite un mapa por idCorreo de toda la tabla para saber qué restar.
+	//El resumen (totales y los "top" clientes y dominios) se arma la primera vez que se pide
+	// después de un cambio y se reutiliza hasta el cambio siguiente.
+	//Los dominios se cuentan en minúsculas, igual que compara la collation de MySQL.
+
+	public ContadoresCorreos() {
+		// Constructor vacío
+	}
+	@Autowired
+	private ServiciosCorreo serviciosCorreo;
+	// Cantidad de clientes y de dominios en el resumen
+	@Value("${app.estadisticas.top:10}")
+	private int top;
+
+	private final Map<String, Integer> porDni = new ConcurrentHashMap<>();
+	private final Map<String, Integer> porDominio = new ConcurrentHashMap<>();
+	private int total;
+	private volatile EstadisticasCorreos resumen;
+
+	@PostConstruct
+	public void construir() {
+		serviciosCorreo.recorrerCorreosDeClientes(fila -> agregar(fila.getCorreo(), fila.getDni()));
+	}
+
+	// Se resta lo que tenía el correo antes del cambio y se suma lo que tiene después
+	@Override
+	public synchronized void alAplicarCambio(CambioCorreo cambio, String correoAnterior, String dniAnterior,
+			String correo, String dni) {
+		if (correoAnterior != null) {
+			quitar(correoAnterior, dniAnterior);
+		}
+		if (correo != null) {
+			agregar(correo, dni);
+		}
+	}
+
+	// Cantidad de correos del cliente (0 si no tiene o no existe)
+	public int cantidadPorDni(String dni) {
+		return porDni.getOrDefault(dni, 0);
+	}
+
+	// Cantidad de correos del dominio, sin distinguir mayúsculas (0 si no hay)
+	public int cantidadPorDominio(String dominio) {
+		return porDominio.getOrDefault(dominio.toLowerCase(Locale.ROOT), 0);
+	}
+
+	// Totales y los "top" clientes y dominios con más correos
+	public EstadisticasCorreos resumen() {
+		EstadisticasCorreos actual = resumen;
+		return actual != null ? actual : armarResumen();
+	}
+
+	private synchronized EstadisticasCorreos armarResumen() {
+		if (resumen == null) {
+			resumen = new EstadisticasCorreos(total, porDni.size(), porDominio.size(), mayores(porDni),
+					mayores(porDominio));
+		}
+		return resumen;
+	}
+
+	// Las "top" claves con más correos, de mayor a menor (con una cola de prioridad de tamaño top)
+	private List<Cantidad> mayores(Map<String, Integer> cantidades) {
+		Comparator<Cantidad> orden = Comparator.comparingInt(Cantidad::getCantidad)
+				.thenComparing(Cantidad::getClave, Comparator.reverseOrder());
+		PriorityQueue<Cantidad> cola = new PriorityQueue<>(top + 1, orden);
+		for (Map.Entry<String, Integer> entrada : cantidades.entrySet()) {
+			cola.add(new Cantidad(entrada.getKey(), entrada.getValue()));
+			if (cola.size() > top) {
+				cola.poll();
+			}
+		}
+		List<Cantidad> resultado = new ArrayList<>(cola);
+		resultado.sort(orden.reversed());
+		return resultado;
+	}
+
+	private synchronized void agregar(String correo, String dni) {
+		if (dni != null) {
+			porDni.merge(dni, 1, Integer::sum);
+		}
+		porDominio.merge(dominio(correo), 1, Integer::sum);
+		total++;
+		resumen = null;
+	}
+
+	private synchronized void quitar(String correo, String dni) {
+		if (dni != null) {
+			porDni.computeIfPresent(dni, (clave, cantidad) -> cantidad > 1 ? cantidad - 1 : null);
+		}
+		porDominio.computeIfPresent(dominio(correo), (clave, cantidad) -> cantidad > 1 ? cantidad - 1 : null);
+		total--;
+		resumen = null;
+	}
+
+	private static String dominio(String correo) {
+		return correo.substring(correo.lastIndexOf('@') + 1).toLowerCase(Locale.ROOT);
+	}
+}
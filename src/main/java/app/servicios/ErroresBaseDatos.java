@@ -0,0 +1,61 @@
+package app.servicios;
+
+import java.sql.SQLException;
+
+import org.springframework.dao.DuplicateKeyException;
+
+// Motivo de un error de la base al guardar, para informarlo al llamador sin el mensaje del
+// driver (SQL, nombres de restricciones y de tablas). La causa completa se registra en el log.
+final class ErroresBaseDatos {
+
+	enum Motivo {
+		// Restricción unique (correo o dni repetido)
+		DUPLICADO,
+		// Clave foránea: el cliente referenciado no existe
+		REFERENCIA_INEXISTENTE,
+		// Cualquier otro error
+		OTRO
+	}
+
+	private ErroresBaseDatos() {
+		// Solo métodos estáticos
+	}
+
+	// Se reconoce por el error del driver: código de MySQL (1062 duplicado, 1451/1452 clave
+	// foránea) o SQLState de las otras bases (23505 unique, 23503/23506 clave foránea en H2)
+	static Motivo motivo(Throwable error) {
+		for (Throwable causa = error; causa != null; causa = causa.getCause()) {
+			if (causa instanceof DuplicateKeyException) {
+				return Motivo.DUPLICADO;
+			}
+			if (causa instanceof SQLException sql) {
+				String estado = sql.getSQLState() == null ? "" : sql.getSQLState();
+				if (sql.getErrorCode() == 1062 || estado.equals("23505")) {
+					return Motivo.DUPLICADO;
+				}
+				if (sql.getErrorCode() == 1451 || sql.getErrorCode() == 1452 || estado.equals("23503")
+						|| estado.equals("23506")) {
+					return Motivo.REFERENCIA_INEXISTENTE;
+				}
+			}
+		}
+		return Motivo.OTRO;
+	}
+
+	// Mensaje fijo de un error al guardar un correo
+	static String mensajeCorreo(Throwable error) {
+		return switch (motivo(error)) {
+		case DUPLICADO -> "Correo duplicado.";
+		case REFERENCIA_INEXISTENTE -> "Cliente inexistente.";
+		case OTRO -> "No se pudo guardar el correo.";
+		};
+	}
+
+	// Mensaje fijo de un error al guardar un cliente
+	static String mensajeCliente(Throwable error) {
+		return switch (motivo(error)) {
+		case DUPLICADO -> "Cliente duplicado.";
+		case REFERENCIA_INEXISTENTE, OTRO -> "No se pudo guardar el cliente.";
+		};
+	}
+}
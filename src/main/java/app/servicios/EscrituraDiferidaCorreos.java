@@ -0,0 +1,198 @@
+package app.servicios;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import app.dto.EstadoEscritura;
+import app.entidades.Cliente06;
+import app.entidades.Correo06;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+@Service
+public class EscrituraDiferidaCorreos implements SmartLifecycle {
+	//Modo opcional de escritura diferida (write-behind) para altas y modificaciones de correos.
+	// La petición se valida, se encola y se responde enseguida con un número de ticket.
+	// Un hilo de fondo toma de la cola hasta app.escritura-diferida.tamanio-lote escrituras
+	// y las guarda juntas con ServiciosCorreo.guardarLote (una transacción, inserts por lotes).
+	// - Contrapresión: la cola es acotada; si está llena la escritura se rechaza.
+	// - Estado: cada ticket se consulta en /correos/escrituras/{ticket}.
+	// - Apagado: al detener la aplicación se dejan de aceptar escrituras y se vacía la cola.
+
+	private static final Logger LOG = LoggerFactory.getLogger(EscrituraDiferidaCorreos.class);
+
+	// Escritura encolada: idCorreo 0 es un alta
+	private static class Pendiente {
+		private final long ticket;
+		private final int idCorreo;
+		private final String correo;
+		private final String dni;
+
+		private Pendiente(long ticket, int idCorreo, String correo, String dni) {
+			this.ticket = ticket;
+			this.idCorreo = idCorreo;
+			this.correo = correo;
+			this.dni = dni;
+		}
+	}
+
+	private final ServiciosCorreo serviciosCorreo;
+	private final boolean habilitada;
+	private final int tamanioLote;
+	private final long esperaMs;
+	private final BlockingQueue<Pendiente> cola;
+	private final AtomicLong tickets = new AtomicLong();
+	// Estados recientes, acotados en cantidad y tiempo
+	private final Cache<Long, EstadoEscritura> estados = Caffeine.newBuilder()
+			.maximumSize(100_000)
+			.expireAfterWrite(Duration.ofHours(1))
+			.build();
+	private volatile boolean activa;
+	private Thread trabajador;
+
+	public EscrituraDiferidaCorreos(ServiciosCorreo serviciosCorreo, MeterRegistry registro,
+			@Value("${app.escritura-diferida.habilitada:false}") boolean habilitada,
+			@Value("${app.escritura-diferida.capacidad:10000}") int capacidad,
+			@Value("${app.escritura-diferida.tamanio-lote:500}") int tamanioLote,
+			@Value("${app.escritura-diferida.espera-ms:20}") long esperaMs) {
+		this.serviciosCorreo = serviciosCorreo;
+		this.habilitada = habilitada;
+		this.tamanioLote = tamanioLote;
+		this.esperaMs = esperaMs;
+		this.cola = new ArrayBlockingQueue<>(capacidad);
+		Gauge.builder("escritura.diferida.cola", cola, BlockingQueue::size)
+				.description("Escrituras de correos pendientes en la cola")
+				.register(registro);
+	}
+
+	public boolean isHabilitada() {
+		return habilitada;
+	}
+
+	// Encola un alta (idCorreo 0) o una modificación. Devuelve el ticket,
+	// o null si la cola está llena o la aplicación se está deteniendo.
+	public Long encolar(int idCorreo, String correo, String dni) {
+		if (!activa) {
+			return null;
+		}
+		long ticket = tickets.incrementAndGet();
+		estados.put(ticket, new EstadoEscritura(ticket, EstadoEscritura.Estado.PENDIENTE, idCorreo, null));
+		if (!cola.offer(new Pendiente(ticket, idCorreo, correo, dni))) {
+			estados.invalidate(ticket);
+			return null;
+		}
+		return ticket;
+	}
+
+	public EstadoEscritura estado(long ticket) {
+		return estados.getIfPresent(ticket);
+	}
+
+	private void procesar() {
+		List<Pendiente> lote = new ArrayList<>(tamanioLote);
+		while (activa || !cola.isEmpty()) {
+			try {
+				Pendiente primero = cola.poll(esperaMs, TimeUnit.MILLISECONDS);
+				if (primero == null) {
+					continue;
+				}
+				lote.add(primero);
+				cola.drainTo(lote, tamanioLote - 1);
+				guardar(lote);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				break;
+			} catch (RuntimeException e) {
+				LOG.error("Error inesperado en la escritura diferida de correos", e);
+			} finally {
+				lote.clear();
+			}
+		}
+	}
+
+	private void guardar(List<Pendiente> lote) {
+		try {
+			List<Correo06> guardados = serviciosCorreo.guardarLote(lote.stream().map(this::nuevoCorreo).toList());
+			for (int i = 0; i < lote.size(); i++) {
+				marcarGuardado(lote.get(i), guardados.get(i));
+			}
+		} catch (RuntimeException e) {
+			// El lote se revirtió completo: se reintenta de a una para aislar las que fallan
+			for (Pendiente pendiente : lote) {
+				try {
+					marcarGuardado(pendiente, serviciosCorreo.guardarLote(List.of(nuevoCorreo(pendiente))).get(0));
+				} catch (RuntimeException ex) {
+					// El estado lo consulta el cliente HTTP: mensaje fijo, la causa queda en el log
+					LOG.warn("Escritura diferida: no se pudo guardar el ticket {}", pendiente.ticket, ex);
+					estados.put(pendiente.ticket, new EstadoEscritura(pendiente.ticket, EstadoEscritura.Estado.ERROR,
+							pendiente.idCorreo, ErroresBaseDatos.mensajeCorreo(ex)));
+				}
+			}
+		}
+	}
+
+	private void marcarGuardado(Pendiente pendiente, Correo06 guardado) {
+		estados.put(pendiente.ticket, new EstadoEscritura(pendiente.ticket, EstadoEscritura.Estado.GUARDADO,
+				guardado.getIdCorreo(), null));
+	}
+
+	// Entidad nueva en cada intento: un intento fallido pudo asignarle un id
+	private Correo06 nuevoCorreo(Pendiente pendiente) {
+		Cliente06 cliente = new Cliente06();
+		cliente.setDni(pendiente.dni);
+		Correo06 correo = new Correo06(pendiente.correo, cliente);
+		correo.setIdCorreo(pendiente.idCorreo);
+		return correo;
+	}
+
+	@Override
+	public void start() {
+		if (!habilitada) {
+			return;
+		}
+		activa = true;
+		trabajador = Thread.ofPlatform().name("escritura-diferida-correos").start(this::procesar);
+	}
+
+	// Deja de aceptar escrituras y espera a que se guarde lo que queda en la cola
+	@Override
+	public void stop() {
+		activa = false;
+		if (trabajador != null) {
+			try {
+				trabajador.join(Duration.ofSeconds(30).toMillis());
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			if (!cola.isEmpty()) {
+				LOG.warn("Se detuvo la escritura diferida con {} correos sin guardar", cola.size());
+			}
+		}
+	}
+
+	@Override
+	public boolean isRunning() {
+		return activa;
+	}
+
+	// Se detiene después del servidor web (fase menor): ya no llegan peticiones nuevas.
+	// Arranca antes, así que nunca se aceptan peticiones sin el hilo de fondo en marcha.
+	@Override
+	public int getPhase() {
+		return SmartLifecycle.DEFAULT_PHASE - 4096;
+	}
+}
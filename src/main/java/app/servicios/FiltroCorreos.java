@@ -0,0 +1,146 @@
+package app.servicios;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import app.eventos.CambioCorreo;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+
+@Service
+public class FiltroCorreos {
+	//Filtro de Bloom de la columna correo (unique), delante de la restricción de la tabla.
+	// Si el filtro dice que un correo no está, seguro es nuevo y no se consulta MySQL.
+	// Si dice que puede estar (existe o es un falso positivo) se confirma con existsByCorreo,
+	// una consulta por el índice único, en lugar de intentar el INSERT y revertir.
+	//Se carga al iniciar con todos los correos y se actualiza con los eventos CambioCorreo.
+	// Las bajas no se quitan (un filtro de Bloom no permite borrar): solo suman falsos positivos.
+	//Los correos se guardan en minúsculas, igual que compara la collation de MySQL.
+	//La restricción unique sigue siendo la garantía final: dos altas simultáneas del mismo
+	// correo pueden pasar ambas por el filtro y una falla en el INSERT.
+
+	public FiltroCorreos() {
+		// Constructor vacío
+	}
+	@Autowired
+	private ServiciosCorreo serviciosCorreo;
+	@Autowired
+	private MeterRegistry registro;
+	// Cantidad de correos prevista y probabilidad de falso positivo con esa cantidad
+	@Value("${app.filtro-correos.capacidad:1000000}")
+	private int capacidad;
+	@Value("${app.filtro-correos.falsos-positivos:0.01}")
+	private double falsosPositivos;
+
+	private AtomicLongArray bits;
+	private long cantidadBits;
+	private int cantidadHashes;
+	private Counter descartados;
+	private Counter consultados;
+
+	@PostConstruct
+	public void construir() {
+		// Tamaño óptimo: m = -n ln(p) / ln(2)^2 bits y k = m/n ln(2) funciones de hash
+		long m = (long) Math.ceil(-capacidad * Math.log(falsosPositivos) / (Math.log(2) * Math.log(2)));
+		bits = new AtomicLongArray((int) ((m + 63) / 64));
+		cantidadBits = bits.length() * 64L;
+		cantidadHashes = Math.max(1, (int) Math.round((double) cantidadBits / capacidad * Math.log(2)));
+		descartados = Counter.builder("filtro.correos.consultas").tag("resultado", "nuevo")
+				.description("Correos descartados como nuevos por el filtro, sin consultar la base").register(registro);
+		consultados = Counter.builder("filtro.correos.consultas").tag("resultado", "posible")
+				.description("Correos que el filtro no pudo descartar y se consultaron en la base").register(registro);
+		serviciosCorreo.recorrerResumenes(resumen -> agregar(resumen.getCorreo()));
+	}
+
+	@TransactionalEventListener(fallbackExecution = true)
+	public void alCambiarCorreo(CambioCorreo cambio) {
+		if (cambio.getTipo() != CambioCorreo.Tipo.BAJA && cambio.getCorreo() != null) {
+			agregar(cambio.getCorreo());
+		}
+	}
+
+	// true si el correo ya está en la tabla. Solo consulta MySQL cuando el filtro no lo descarta.
+	public boolean existe(String correo) {
+		if (!puedeEstar(correo)) {
+			descartados.increment();
+			return false;
+		}
+		consultados.increment();
+		return serviciosCorreo.existeCorreo(correo);
+	}
+
+	// Correos de la colección que ya están en la tabla, normalizados (ver normalizar): la
+	// consulta devuelve cada correo como está guardado, que puede diferir en mayúsculas.
+	// Solo los que el filtro no descarta van a la consulta IN (ninguna si los descarta a todos).
+	public Set<String> existentes(Collection<String> correos) {
+		List<String> posibles = correos.stream().filter(this::puedeEstar).toList();
+		descartados.increment(correos.size() - posibles.size());
+		if (posibles.isEmpty()) {
+			return Set.of();
+		}
+		consultados.increment(posibles.size());
+		return serviciosCorreo.buscarCorreosExistentes(posibles).stream().map(FiltroCorreos::normalizar)
+				.collect(Collectors.toSet());
+	}
+
+	// Clave de comparación de un correo: en minúsculas, como compara la collation de MySQL
+	// (la restricción unique trata "A@x.com" y "a@x.com" como el mismo correo)
+	public static String normalizar(String correo) {
+		return correo.toLowerCase(Locale.ROOT);
+	}
+
+	// false: el correo seguro no está. true: puede estar.
+	public boolean puedeEstar(String correo) {
+		long h1 = hash(correo);
+		long h2 = mezclar(h1 ^ 0x9E3779B97F4A7C15L) | 1;
+		for (int i = 0; i < cantidadHashes; i++) {
+			long bit = ((h1 + i * h2) & Long.MAX_VALUE) % cantidadBits;
+			if ((bits.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private void agregar(String correo) {
+		long h1 = hash(correo);
+		long h2 = mezclar(h1 ^ 0x9E3779B97F4A7C15L) | 1;
+		for (int i = 0; i < cantidadHashes; i++) {
+			long bit = ((h1 + i * h2) & Long.MAX_VALUE) % cantidadBits;
+			int palabra = (int) (bit >>> 6);
+			long mascara = 1L << bit;
+			long actual;
+			while (((actual = bits.get(palabra)) & mascara) == 0 && !bits.compareAndSet(palabra, actual, actual | mascara)) {
+				// Otro hilo modificó la palabra: se reintenta
+			}
+		}
+	}
+
+	// FNV-1a de 64 bits sobre el correo en minúsculas, seguido de una mezcla final
+	private static long hash(String correo) {
+		String normalizado = normalizar(correo);
+		long h = 0xcbf29ce484222325L;
+		for (int i = 0; i < normalizado.length(); i++) {
+			h ^= normalizado.charAt(i);
+			h *= 0x100000001b3L;
+		}
+		return mezclar(h);
+	}
+
+	// Finalizador de SplitMix64
+	private static long mezclar(long h) {
+		h = (h ^ (h >>> 30)) * 0xbf58476d1ce4e5b9L;
+		h = (h ^ (h >>> 27)) * 0x94d049bb133111ebL;
+		return h ^ (h >>> 31);
+	}
+}
@@ -0,0 +1,179 @@
+package app.servicios;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import app.dto.CorreoResumen;
+import app.dto.Pagina;
+import app.eventos.CambioCorreo;
+import jakarta.annotation.PostConstruct;
+
+@Service
+public class IndiceCorreos {
+	//Índice en memoria de la columna correo para las búsquedas por prefijo y por dominio.
+	// - porCorreo: mapa ordenado correo (en minúsculas) -> idCorreo. Un prefijo es un rango
+	//   del mapa, se recorre desde el primer correo que empieza con el prefijo.
+	// - porDominio: dominio -> conjunto ordenado de idCorreo.
+	// - porId: idCorreo -> correo y dni, para saber qué quitar en las modificaciones y bajas
+	//   (una baja por idCorreo no trae el correo ni el dni).
+	//Se construye al iniciar (antes de atender peticiones) y se mantiene con los eventos
+	// CambioCorreo que publica ServiciosCorreo después de cada commit.
+	//Las lecturas no se bloquean (estructuras concurrentes); las escrituras se serializan
+	// para que los tres mapas queden consistentes entre sí.
+	//Es el único mapa de toda la tabla por idCorreo: cada cambio aplicado se pasa, con los
+	// valores anteriores, a los ObservadorIndiceCorreos (ContadoresCorreos, RegistroCambios).
+
+	public IndiceCorreos() {
+		// Constructor vacío
+	}
+	@Autowired
+	private ServiciosCorreo serviciosCorreo;
+	@Autowired(required = false)
+	private List<ObservadorIndiceCorreos> observadores = List.of();
+
+	private final NavigableMap<String, Integer> porCorreo = new ConcurrentSkipListMap<>();
+	private final Map<String, NavigableSet<Integer>> porDominio = new ConcurrentHashMap<>();
+	private final Map<Integer, Entrada> porId = new ConcurrentHashMap<>();
+
+	@PostConstruct
+	public void construir() {
+		serviciosCorreo.recorrerCorreosDeClientes(fila -> agregar(fila.getIdCorreo(), fila.getCorreo(), fila.getDni()));
+	}
+
+	// Aplica el cambio y lo pasa a los observadores con los valores anteriores.
+	// Con la mayor precedencia, igual que RegistroCambios.alCambiarCliente: los cambios de
+	// correos y de clientes de una transacción quedan en el registro en el orden en que se
+	// publicaron.
+	@Order(Ordered.HIGHEST_PRECEDENCE)
+	@TransactionalEventListener(fallbackExecution = true)
+	public synchronized void alCambiarCorreo(CambioCorreo cambio) {
+		int id = cambio.getIdCorreo();
+		Entrada anterior = porId.get(id);
+		String correoAnterior = anterior == null ? null : anterior.correo;
+		String dniAnterior = anterior == null ? null : anterior.dni;
+		String correo = null;
+		String dni = null;
+		switch (cambio.getTipo()) {
+		case ALTA, MODIFICACION -> {
+			// Una modificación sin correo o sin dni conserva el valor anterior
+			correo = cambio.getCorreo() != null ? cambio.getCorreo() : correoAnterior;
+			dni = cambio.getDni() != null ? cambio.getDni() : dniAnterior;
+			if (correo != null) {
+				agregar(id, correo, dni);
+			}
+		}
+		case BAJA -> quitar(id);
+		}
+		for (ObservadorIndiceCorreos observador : observadores) {
+			observador.alAplicarCambio(cambio, correoAnterior, dniAnterior, correo, dni);
+		}
+	}
+
+	// Correos que empiezan con el prefijo (sin distinguir mayúsculas), ordenados alfabéticamente.
+	// "desde" es el último correo de la página anterior (vacío en la primera página).
+	public Pagina<CorreoResumen> buscarPorPrefijo(String prefijo, String desde, int limite) {
+		String inicio = prefijo.toLowerCase(Locale.ROOT);
+		String cursor = desde.toLowerCase(Locale.ROOT);
+		NavigableMap<String, Integer> rango = cursor.compareTo(inicio) > 0 ? porCorreo.tailMap(cursor, false)
+				: porCorreo.tailMap(inicio, true);
+		List<CorreoResumen> resultado = new ArrayList<>(Math.min(limite, 64));
+		for (Map.Entry<String, Integer> entrada : rango.entrySet()) {
+			if (!entrada.getKey().startsWith(inicio)) {
+				break; // Fin del rango del prefijo
+			}
+			Entrada actual = porId.get(entrada.getValue());
+			resultado.add(new CorreoResumen(entrada.getValue(), actual != null ? actual.correo : entrada.getKey()));
+			if (resultado.size() == limite) {
+				break;
+			}
+		}
+		String siguiente = resultado.size() < limite ? null
+				: resultado.get(resultado.size() - 1).getCorreo().toLowerCase(Locale.ROOT);
+		return new Pagina<>(resultado, siguiente);
+	}
+
+	// Correos del dominio (parte posterior a la @), ordenados por idCorreo.
+	// "desde" es el último idCorreo de la página anterior (0 en la primera página).
+	public Pagina<CorreoResumen> buscarPorDominio(String dominio, int desde, int limite) {
+		NavigableSet<Integer> ids = porDominio.get(dominio.toLowerCase(Locale.ROOT));
+		List<CorreoResumen> resultado = new ArrayList<>(Math.min(limite, 64));
+		if (ids != null) {
+			for (Integer id : ids.tailSet(desde, false)) {
+				Entrada actual = porId.get(id);
+				if (actual != null) {
+					resultado.add(new CorreoResumen(id, actual.correo));
+				}
+				if (resultado.size() == limite) {
+					break;
+				}
+			}
+		}
+		String siguiente = resultado.size() < limite ? null
+				: String.valueOf(resultado.get(resultado.size() - 1).getIdCorreo());
+		return new Pagina<>(resultado, siguiente);
+	}
+
+	// Correo actual de un idCorreo (null si no existe)
+	public String correo(int idCorreo) {
+		Entrada actual = porId.get(idCorreo);
+		return actual == null ? null : actual.correo;
+	}
+
+	// Dni del cliente actual de un idCorreo (null si no existe)
+	public String dni(int idCorreo) {
+		Entrada actual = porId.get(idCorreo);
+		return actual == null ? null : actual.dni;
+	}
+
+	private synchronized void agregar(int idCorreo, String correo, String dni) {
+		quitar(idCorreo); // En una modificación se reemplaza el valor anterior
+		String clave = correo.toLowerCase(Locale.ROOT);
+		porId.put(idCorreo, new Entrada(correo, dni));
+		porCorreo.put(clave, idCorreo);
+		porDominio.computeIfAbsent(dominio(clave), d -> new ConcurrentSkipListSet<>()).add(idCorreo);
+	}
+
+	private synchronized void quitar(int idCorreo) {
+		Entrada anterior = porId.remove(idCorreo);
+		if (anterior == null) {
+			return;
+		}
+		String clave = anterior.correo.toLowerCase(Locale.ROOT);
+		porCorreo.remove(clave, idCorreo);
+		NavigableSet<Integer> ids = porDominio.get(dominio(clave));
+		if (ids != null) {
+			ids.remove(idCorreo);
+			if (ids.isEmpty()) {
+				porDominio.remove(dominio(clave), ids);
+			}
+		}
+	}
+
+	private static String dominio(String correo) {
+		return correo.substring(correo.lastIndexOf('@') + 1);
+	}
+
+	// Correo y dni de un idCorreo
+	private static final class Entrada {
+		private final String correo;
+		private final String dni;
+
+		private Entrada(String correo, String dni) {
+			this.correo = correo;
+			this.dni = dni;
+		}
+	}
+}
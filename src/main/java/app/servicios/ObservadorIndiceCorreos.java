@@ -0,0 +1,16 @@
+package app.servicios;
+
+import app.eventos.CambioCorreo;
+
+// Componente que recibe cada cambio de correo junto con los valores anteriores, tal como
+// IndiceCorreos los aplica (ver IndiceCorreos.alCambiarCorreo).
+// Se llama con el bloqueo del índice tomado: los cambios de un mismo idCorreo llegan en el
+// orden en que se aplicaron y los valores anteriores son los del cambio previo.
+// Debe ser rápido y no lanzar excepciones.
+public interface ObservadorIndiceCorreos {
+
+	// correoAnterior y dniAnterior: null si el idCorreo no estaba en el índice (un alta).
+	// correo y dni: valores después del cambio (los anteriores si una modificación no los indica;
+	// null en una baja).
+	void alAplicarCambio(CambioCorreo cambio, String correoAnterior, String dniAnterior, String correo, String dni);
+}
@@ -0,0 +1,337 @@
+package app.servicios;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongFunction;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.util.unit.DataSize;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import app.dto.CambioRegistrado;
+import app.eventos.CambioCliente;
+import app.eventos.CambioCorreo;
+import app.excepciones.ErrorControlado;
+import jakarta.annotation.PostConstruct;
+
+@Service
+@ConditionalOnProperty(name = "app.cambios.habilitado", havingValue = "true", matchIfMissing = true)
+public class RegistroCambios implements ObservadorIndiceCorreos {
+	//Registro de cambios de las tablas cliente y correo, para que otros sistemas se sincronicen
+	// leyendo solo los cambios (/cambios?desde=N y /cambios/eventos) y no las tablas completas.
+	// - Cada CambioCliente y CambioCorreo se guarda después del commit como una línea JSON
+	//   (CambioRegistrado) con un número de secuencia creciente y sin huecos.
+	// - Archivo de solo agregado, mapeado en memoria: escribir es copiar bytes a la memoria
+	//   (el sistema operativo los pasa al disco); leer desde N es devolver un tramo del archivo,
+	//   ubicado con las posiciones de cada línea (un arreglo de int), sin convertir nada.
+	// - Segmentos de app.cambios.tamanio-segmento: cuando uno se llena se empieza otro. Se
+	//   conservan los últimos app.cambios.segmentos-retenidos (el actual incluido) y se borran
+	//   los anteriores. Pedir cambios anteriores al segmento más antiguo responde 410
+	//   (CAMBIOS_NO_DISPONIBLES): el consumidor vuelve a leer las tablas completas.
+	// - Al reiniciar se abren los segmentos retenidos y se sigue desde la última línea completa.
+	//Los cambios de correos llegan desde IndiceCorreos, con los valores anteriores (dniAnterior,
+	// correoAnterior) que tenía el índice: se leen y se agregan al registro con el bloqueo del
+	// índice tomado, así dos cambios seguidos del mismo correo no ven los mismos valores
+	// anteriores ni quedan en otro orden.
+	//Con varias instancias de la aplicación cada una tiene su registro, con los cambios que hizo.
+
+	private static final Logger LOG = LoggerFactory.getLogger(RegistroCambios.class);
+	private static final String PREFIJO = "cambios-";
+	private static final String EXTENSION = ".log";
+	private static final byte FIN_DE_LINEA = '\n';
+
+	public RegistroCambios() {
+		// Constructor vacío
+	}
+	@Autowired
+	private ObjectMapper objectMapper;
+	@Value("${app.cambios.directorio:${user.home}/appclientecorreo/cambios}")
+	private String directorio;
+	@Value("${app.cambios.tamanio-segmento:64MB}")
+	private DataSize tamanioSegmento;
+	// Segmentos que se conservan, con el actual (al menos 1)
+	@Value("${app.cambios.segmentos-retenidos:4}")
+	private int segmentosRetenidos;
+	// true: cada cambio se fuerza al disco antes de seguir (sobrevive a un corte de energía)
+	@Value("${app.cambios.sincronizar:false}")
+	private boolean sincronizar;
+
+	// Las escrituras se serializan; las lecturas no toman el bloqueo
+	private final ReentrantLock bloqueo = new ReentrantLock();
+	private final Condition nuevos = bloqueo.newCondition();
+	// Segmentos retenidos, del más antiguo al actual (el último). Lista inmutable: se reemplaza
+	// al rotar y cada lectura trabaja con la que tomó.
+	private volatile List<Segmento> segmentos;
+
+	@PostConstruct
+	public void abrir() throws IOException {
+		Path carpeta = Paths.get(directorio).toAbsolutePath();
+		Files.createDirectories(carpeta);
+		List<Long> primeras = new ArrayList<>();
+		try (DirectoryStream<Path> archivos = Files.newDirectoryStream(carpeta, PREFIJO + "*" + EXTENSION)) {
+			for (Path archivo : archivos) {
+				long primera = primeraDe(archivo);
+				if (primera > 0) {
+					primeras.add(primera);
+				}
+			}
+		}
+		primeras.sort(Comparator.reverseOrder());
+		// Del más nuevo al más antiguo, mientras las secuencias sean continuas
+		List<Segmento> abiertos = new ArrayList<>();
+		for (long primera : primeras) {
+			if (abiertos.size() == retenidos()) {
+				break;
+			}
+			// Solo el más nuevo recibe cambios: los anteriores se mapean con su tamaño
+			Segmento anterior = Segmento.abrir(carpeta.resolve(nombre(primera)), primera,
+					abiertos.isEmpty() ? capacidad() : 0);
+			if (!abiertos.isEmpty() && anterior.primera + anterior.cantidad != abiertos.get(0).primera) {
+				break;
+			}
+			abiertos.add(0, anterior);
+		}
+		if (abiertos.isEmpty()) {
+			abiertos.add(Segmento.abrir(carpeta.resolve(nombre(1)), 1, capacidad()));
+		}
+		segmentos = List.copyOf(abiertos);
+		borrarAnteriores(carpeta, abiertos.get(0).primera);
+		LOG.info("Registro de cambios en {}: {} segmentos, secuencias {} a {}", carpeta, abiertos.size(),
+				abiertos.get(0).primera, ultimaSecuencia());
+	}
+
+	@Override
+	public void alAplicarCambio(CambioCorreo cambio, String correoAnterior, String dniAnterior, String correo,
+			String dni) {
+		long instante = System.currentTimeMillis();
+		agregar(secuencia -> new CambioRegistrado(secuencia, instante, "correo", cambio.getTipo().name(),
+				cambio.getIdCorreo(), dniAnterior, dni, correoAnterior, correo, null, null));
+	}
+
+	@Order(Ordered.HIGHEST_PRECEDENCE)
+	@TransactionalEventListener(fallbackExecution = true)
+	public void alCambiarCliente(CambioCliente cambio) {
+		long instante = System.currentTimeMillis();
+		agregar(secuencia -> new CambioRegistrado(secuencia, instante, "cliente", cambio.getTipo().name(), null, null,
+				cambio.getDni(), null, null, cambio.getNombre(), cambio.getApellido()));
+	}
+
+	// Secuencia del último cambio registrado (0 si no hay ninguno)
+	public long ultimaSecuencia() {
+		Segmento actual = segmentos.getLast();
+		return actual.primera + actual.cantidad - 1;
+	}
+
+	// Hasta "limite" cambios posteriores a la secuencia "desde", como líneas JSON (NDJSON)
+	// consecutivas: la primera línea es la secuencia desde + 1. Vacío si no hay cambios nuevos.
+	// Un tramo no pasa del final de un segmento: puede traer menos de "limite" cambios aunque
+	// haya más (se siguen pidiendo desde el último recibido).
+	// Lanza CAMBIOS_NO_DISPONIBLES si alguno de esos cambios ya no está en el registro.
+	public ByteBuffer leer(long desde, int limite) {
+		List<Segmento> retenidos = segmentos;
+		if (desde < retenidos.getFirst().primera - 1) {
+			throw ErrorControlado.CAMBIOS_NO_DISPONIBLES;
+		}
+		// El segmento de la secuencia desde + 1 (el actual si todavía no existe)
+		Segmento actual = retenidos.getLast();
+		for (int i = retenidos.size() - 2; i >= 0 && actual.primera > desde + 1; i--) {
+			actual = retenidos.get(i);
+		}
+		int cantidad = actual.cantidad; // Lectura volátil: después se leen las posiciones
+		int[] posiciones = actual.posiciones;
+		if (desde > actual.primera + cantidad - 1) {
+			throw ErrorControlado.CAMBIOS_NO_DISPONIBLES;
+		}
+		int desdeIndice = (int) (desde - actual.primera + 1);
+		int hastaIndice = (int) Math.min(cantidad, desdeIndice + (long) limite);
+		return actual.datos.asReadOnlyBuffer()
+				.limit(posiciones[hastaIndice])
+				.position(posiciones[desdeIndice])
+				.slice();
+	}
+
+	// Espera hasta que haya un cambio posterior a "desde" o pase el tiempo indicado.
+	// Devuelve la última secuencia registrada.
+	public long esperar(long desde, long milisegundos) throws InterruptedException {
+		long restante = TimeUnit.MILLISECONDS.toNanos(milisegundos);
+		bloqueo.lock();
+		try {
+			while (ultimaSecuencia() <= desde && restante > 0) {
+				restante = nuevos.awaitNanos(restante);
+			}
+			return ultimaSecuencia();
+		} finally {
+			bloqueo.unlock();
+		}
+	}
+
+	private void agregar(LongFunction<CambioRegistrado> cambio) {
+		bloqueo.lock();
+		try {
+			Segmento actual = segmentos.getLast();
+			long secuencia = actual.primera + actual.cantidad;
+			byte[] linea = objectMapper.writeValueAsBytes(cambio.apply(secuencia));
+			if (!actual.cabe(linea.length + 1)) {
+				actual = rotar(secuencia);
+			}
+			actual.agregar(linea, sincronizar);
+			nuevos.signalAll();
+		} catch (IOException e) {
+			// El commit ya se hizo: el cambio queda fuera del registro, pero la petición sigue
+			LOG.error("No se pudo agregar un cambio al registro", e);
+		} finally {
+			bloqueo.unlock();
+		}
+	}
+
+	// Empieza un segmento nuevo en la secuencia indicada y deja de retener los más antiguos.
+	// Las lecturas en curso conservan los segmentos que tomaron: el archivo se borra, pero la
+	// memoria mapeada sigue siendo válida.
+	private Segmento rotar(long primera) throws IOException {
+		List<Segmento> anteriores = segmentos;
+		Path carpeta = anteriores.getLast().archivo.getParent();
+		Segmento nuevo = Segmento.abrir(carpeta.resolve(nombre(primera)), primera, capacidad());
+		List<Segmento> retenidos = new ArrayList<>(anteriores);
+		retenidos.add(nuevo);
+		while (retenidos.size() > retenidos()) {
+			retenidos.removeFirst();
+		}
+		segmentos = List.copyOf(retenidos);
+		borrarAnteriores(carpeta, retenidos.getFirst().primera);
+		return nuevo;
+	}
+
+	// Borra los segmentos que empiezan antes de la secuencia indicada. Los que no se puedan
+	// borrar (por ejemplo, todavía mapeados en Windows) se borran en el próximo inicio.
+	private void borrarAnteriores(Path carpeta, long primera) {
+		try (DirectoryStream<Path> archivos = Files.newDirectoryStream(carpeta, PREFIJO + "*" + EXTENSION)) {
+			for (Path archivo : archivos) {
+				if (primeraDe(archivo) < primera) {
+					Files.deleteIfExists(archivo);
+				}
+			}
+		} catch (IOException | UncheckedIOException e) {
+			LOG.warn("No se pudieron borrar los segmentos anteriores del registro de cambios: {}", e.getMessage());
+		}
+	}
+
+	private int retenidos() {
+		return Math.max(segmentosRetenidos, 1);
+	}
+
+	private int capacidad() {
+		return (int) Math.min(Math.max(tamanioSegmento.toBytes(), DataSize.ofMegabytes(1).toBytes()), Integer.MAX_VALUE);
+	}
+
+	// Nombre de un segmento: la secuencia de su primer cambio, con ceros para ordenar alfabéticamente
+	private static String nombre(long primera) {
+		return PREFIJO + String.format("%020d", primera) + EXTENSION;
+	}
+
+	private static long primeraDe(Path archivo) {
+		String nombre = archivo.getFileName().toString();
+		try {
+			return Long.parseLong(nombre.substring(PREFIJO.length(), nombre.length() - EXTENSION.length()));
+		} catch (NumberFormatException e) {
+			return 0; // Otro archivo con el mismo prefijo: se ignora
+		}
+	}
+
+	// Un archivo de cambios mapeado en memoria y las posiciones de sus líneas
+	private static final class Segmento {
+		private final Path archivo;
+		private final MappedByteBuffer datos;
+		// Secuencia de la primera línea del segmento
+		private final long primera;
+		// posiciones[i]: inicio de la línea i; posiciones[cantidad]: fin de los datos
+		private int[] posiciones = new int[1024];
+		// Volátil: se escribe después de los datos y de las posiciones de cada línea nueva
+		private volatile int cantidad;
+
+		private Segmento(Path archivo, MappedByteBuffer datos, long primera) {
+			this.archivo = archivo;
+			this.datos = datos;
+			this.primera = primera;
+		}
+
+		// El archivo se crea con el tamaño del segmento (lleno de ceros) y se mapea completo.
+		// Con capacidad 0 (segmento anterior, ya lleno) se mapea con el tamaño que tiene.
+		private static Segmento abrir(Path archivo, long primera, int capacidad) throws IOException {
+			try (FileChannel canal = FileChannel.open(archivo, StandardOpenOption.CREATE, StandardOpenOption.READ,
+					StandardOpenOption.WRITE)) {
+				long tamanio = Math.min(Math.max(canal.size(), capacidad), Integer.MAX_VALUE);
+				Segmento segmento = new Segmento(archivo, canal.map(FileChannel.MapMode.READ_WRITE, 0, tamanio), primera);
+				segmento.recuperar();
+				return segmento;
+			}
+		}
+
+		// Recorre las líneas completas hasta el primer byte 0. Una línea sin terminar (la
+		// aplicación se detuvo mientras la escribía) se borra.
+		private void recuperar() {
+			int posicion = 0;
+			int cantidadRecuperada = 0;
+			while (posicion < datos.capacity() && datos.get(posicion) != 0) {
+				int fin = posicion;
+				while (fin < datos.capacity() && datos.get(fin) != FIN_DE_LINEA && datos.get(fin) != 0) {
+					fin++;
+				}
+				if (fin == datos.capacity() || datos.get(fin) != FIN_DE_LINEA) {
+					for (int i = posicion; i < fin; i++) {
+						datos.put(i, (byte) 0);
+					}
+					break;
+				}
+				posicion = fin + 1;
+				cantidadRecuperada++;
+				if (cantidadRecuperada + 1 > posiciones.length) {
+					posiciones = Arrays.copyOf(posiciones, posiciones.length * 2);
+				}
+				posiciones[cantidadRecuperada] = posicion;
+			}
+			cantidad = cantidadRecuperada;
+		}
+
+		private boolean cabe(int largo) {
+			return posiciones[cantidad] + (long) largo <= datos.capacity();
+		}
+
+		private void agregar(byte[] linea, boolean sincronizar) {
+			int inicio = posiciones[cantidad];
+			datos.put(inicio, linea);
+			datos.put(inicio + linea.length, FIN_DE_LINEA);
+			if (sincronizar) {
+				datos.force(inicio, linea.length + 1);
+			}
+			if (cantidad + 2 > posiciones.length) {
+				posiciones = Arrays.copyOf(posiciones, posiciones.length * 2);
+			}
+			posiciones[cantidad + 1] = inicio + linea.length + 1;
+			cantidad++;
+		}
+	}
+}
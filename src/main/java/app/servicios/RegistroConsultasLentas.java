@@ -0,0 +1,108 @@
+package app.servicios;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerMapping;
+
+import app.dto.ConsultaLenta;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+
+@Service
+public class RegistroConsultasLentas implements QueryExecutionListener {
+	//Reemplaza a spring.jpa.show-sql: en lugar de imprimir todas las sentencias,
+	// solo se registran las que superan app.consultas.umbral-ms y una muestra
+	// (app.consultas.muestreo) del resto. El registro se escribe en el logger
+	// "app.consultas.lentas", que en logback-spring.xml usa un appender asíncrono.
+	//Además se conservan las app.consultas.top sentencias más lentas para /consultas/lentas.
+
+	private static final Logger LOG = LoggerFactory.getLogger("app.consultas.lentas");
+
+	private final long umbralMs;
+	private final double muestreo;
+	private final int top;
+	// Montículo de mínimos: la raíz es la más rápida de las guardadas
+	private final PriorityQueue<ConsultaLenta> masLentas;
+
+	public RegistroConsultasLentas(@Value("${app.consultas.umbral-ms:200}") long umbralMs,
+			@Value("${app.consultas.muestreo:0}") double muestreo, @Value("${app.consultas.top:50}") int top) {
+		this.umbralMs = umbralMs;
+		this.muestreo = muestreo;
+		this.top = top;
+		this.masLentas = new PriorityQueue<>(top + 1, Comparator.comparingLong(ConsultaLenta::getDuracionMs));
+	}
+
+	@Override
+	public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+		// Nada que hacer antes de ejecutar
+	}
+
+	@Override
+	public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+		long duracion = execInfo.getElapsedTime();
+		boolean lenta = duracion >= umbralMs;
+		if (!lenta && (muestreo <= 0 || ThreadLocalRandom.current().nextDouble() >= muestreo)) {
+			return; // Camino rápido: la mayoría de las sentencias no se registran
+		}
+		String origen = origen();
+		for (QueryInfo consulta : queryInfoList) {
+			int parametros = 0;
+			for (var fila : consulta.getParametersList()) {
+				parametros += fila.size();
+			}
+			if (lenta) {
+				LOG.warn("Consulta lenta {} ms, {} parámetros, origen {}: {}", duracion, parametros, origen,
+						consulta.getQuery());
+				agregar(new ConsultaLenta(consulta.getQuery(), parametros, duracion, origen, System.currentTimeMillis()));
+			} else {
+				LOG.info("Consulta (muestra) {} ms, {} parámetros, origen {}: {}", duracion, parametros, origen,
+						consulta.getQuery());
+			}
+		}
+	}
+
+	// Las N sentencias más lentas registradas, de la más lenta a la más rápida
+	public List<ConsultaLenta> listarMasLentas(int cantidad) {
+		List<ConsultaLenta> copia;
+		synchronized (masLentas) {
+			copia = new ArrayList<>(masLentas);
+		}
+		copia.sort(Comparator.comparingLong(ConsultaLenta::getDuracionMs).reversed());
+		return copia.subList(0, Math.min(cantidad, copia.size()));
+	}
+
+	private void agregar(ConsultaLenta consulta) {
+		synchronized (masLentas) {
+			masLentas.add(consulta);
+			if (masLentas.size() > top) {
+				masLentas.poll();
+			}
+		}
+	}
+
+	// Método del controlador que atiende la petición actual
+	private static String origen() {
+		RequestAttributes atributos = RequestContextHolder.getRequestAttributes();
+		if (atributos == null) {
+			return "sin petición";
+		}
+		Object handler = atributos.getAttribute(HandlerMapping.BEST_MATCHING_HANDLER_ATTRIBUTE,
+				RequestAttributes.SCOPE_REQUEST);
+		if (handler instanceof HandlerMethod metodo) {
+			return metodo.getBeanType().getSimpleName() + "." + metodo.getMethod().getName();
+		}
+		return "sin petición";
+	}
+}
@@ -1,15 +1,38 @@
 package app.servicios;
 
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import io.micrometer.core.annotation.Timed;
+
+import app.config.CacheConfig;
+import app.dto.Pagina;
 import app.entidades.Cliente06;
+import app.eventos.CambioCliente;
 import app.repositorios.ClientesRepositorio;
 import app.requerimientos.RequerimientosCRUD;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 
+// Tiempo y cantidad de llamadas de cada método (etiquetas class y method), ver MetricasConfig
+@Timed(value = "servicios.cliente", histogram = true)
 @Service
 public class ServiciosCliente implements RequerimientosCRUD<Cliente06> {
     
@@ -18,34 +41,137 @@ public class ServiciosCliente implements RequerimientosCRUD<Cliente06> {
 	}
 	@Autowired
 	private ClientesRepositorio clientesRepositorio;
+	@PersistenceContext
+	private EntityManager entityManager;
+	// Las escrituras publican un CambioCliente (versión para los ETag, registro de cambios)
+	@Autowired
+	private ApplicationEventPublisher eventos;
+	// Cantidad de claves por consulta IN en las búsquedas de varios clientes
+	@Value("${app.multiget.tamanio-bloque:500}")
+	private int tamanioBloque;
+	// Transacción de escritura: con réplica de lectura se consulta la primaria. El listado sale
+	// con el ETag de VersionesTablas, que ya cuenta el último commit; la réplica atrasada
+	// devolvería filas anteriores con el ETag nuevo y el navegador las guardaría como actuales.
 	@Override
+	@Transactional
 	public List<Cliente06> listarTodos() {
         return clientesRepositorio.findAll();
     }
+	// Las escrituras desalojan el cliente y sus correos de la caché (los correos muestran nombre y apellido)
 	@Override
+	@Caching(evict = { @CacheEvict(cacheNames = CacheConfig.CLIENTES, key = "#cliente.dni"),
+			@CacheEvict(cacheNames = CacheConfig.CORREOS_POR_DNI, key = "#cliente.dni") })
 	public void actualizar(Cliente06 cliente) {
 		clientesRepositorio.save(cliente);
+		publicar(CambioCliente.Tipo.MODIFICACION, cliente);
 	}
+	// Lectura frecuente (se resuelve el cliente en cada alta, actualización y baja de correos).
+	// Los clientes inexistentes no se guardan en la caché.
+	// La carga va a la primaria (transacción de escritura): después de un desalojo, la caché
+	// no debe volver a llenarse con los datos anteriores de una réplica atrasada.
 	@Override
+	@Transactional
+	@Cacheable(cacheNames = CacheConfig.CLIENTES, key = "#dni", unless = "#result == null")
 	public Cliente06 buscarPorId(String dni) {
         return clientesRepositorio.findById(dni).orElse(null);
     }
 	@Override
+	@Caching(evict = { @CacheEvict(cacheNames = CacheConfig.CLIENTES, key = "#cliente.dni"),
+			@CacheEvict(cacheNames = CacheConfig.CORREOS_POR_DNI, key = "#cliente.dni") })
 	public void guardar(Cliente06 cliente) {
 		clientesRepositorio.save(cliente);
+		publicar(CambioCliente.Tipo.ALTA, cliente);
     }
 	@Override
+	@Transactional
+	@Caching(evict = { @CacheEvict(cacheNames = CacheConfig.CLIENTES, key = "#dni"),
+			@CacheEvict(cacheNames = CacheConfig.CORREOS_POR_DNI, key = "#dni") })
 	public void eliminarPorId(String dni) {
-		clientesRepositorio.deleteById(dni);
+		borrarPorDni(dni);
+    }
+	// Borrado en una sola sentencia. false si no existe un cliente con ese dni.
+	@Transactional
+	@Caching(evict = { @CacheEvict(cacheNames = CacheConfig.CLIENTES, key = "#dni"),
+			@CacheEvict(cacheNames = CacheConfig.CORREOS_POR_DNI, key = "#dni") })
+	public boolean borrarPorDni(String dni) {
+		if (clientesRepositorio.borrarPorDni(dni) == 0) {
+			return false;
+		}
+		eventos.publishEvent(new CambioCliente(CambioCliente.Tipo.BAJA, dni, null, null));
+		return true;
+    }
+	// Actualización de nombre y apellido en una sola sentencia, sin leer el cliente
+	// ni hacer el merge de save. false si no existe un cliente con ese dni.
+	@Transactional
+	@Caching(evict = { @CacheEvict(cacheNames = CacheConfig.CLIENTES, key = "#dni"),
+			@CacheEvict(cacheNames = CacheConfig.CORREOS_POR_DNI, key = "#dni") })
+	public boolean actualizarDatos(String dni, String nombre, String apellido) {
+		if (clientesRepositorio.actualizarDatos(dni, nombre, apellido) == 0) {
+			return false;
+		}
+		eventos.publishEvent(new CambioCliente(CambioCliente.Tipo.MODIFICACION, dni, nombre, apellido));
+		return true;
     }
 	@Override
+	@Caching(evict = { @CacheEvict(cacheNames = CacheConfig.CLIENTES, key = "#cliente.dni"),
+			@CacheEvict(cacheNames = CacheConfig.CORREOS_POR_DNI, key = "#cliente.dni") })
 	public void eliminar(Cliente06 cliente) {
 		clientesRepositorio.delete(cliente);
+		eventos.publishEvent(new CambioCliente(CambioCliente.Tipo.BAJA, cliente.getDni(), null, null));
     }
 	@Override
 	public boolean existePorId(String dni) {
         return clientesRepositorio.existsById(dni);
     }
+	// Listado paginado por cursor: devuelve hasta "limite" clientes con dni mayor a "desde".
+	@Transactional(readOnly = true)
+	public Pagina<Cliente06> listarPagina(String desde, int limite) {
+		List<Cliente06> clientes = clientesRepositorio.findByDniGreaterThanOrderByDniAsc(desde, Limit.of(limite));
+		String siguiente = clientes.size() < limite ? null : clientes.get(clientes.size() - 1).getDni();
+		return new Pagina<>(clientes, siguiente);
+	}
+	// Búsqueda de varios clientes por DNI: consultas IN de a tamanioBloque claves, en una sola
+	// transacción (una conexión). Devuelve dni -> cliente en el orden recibido; sin los inexistentes.
+	@Transactional(readOnly = true)
+	public Map<String, Cliente06> buscarPorIds(Collection<String> dnis) {
+		List<String> claves = List.copyOf(new LinkedHashSet<>(dnis));
+		Map<String, Cliente06> encontrados = new HashMap<>(claves.size() * 2);
+		for (int desde = 0; desde < claves.size(); desde += tamanioBloque) {
+			List<String> bloque = claves.subList(desde, Math.min(desde + tamanioBloque, claves.size()));
+			for (Cliente06 cliente : clientesRepositorio.findAllById(bloque)) {
+				encontrados.put(cliente.getDni(), cliente);
+			}
+		}
+		Map<String, Cliente06> resultado = new LinkedHashMap<>(encontrados.size() * 2);
+		for (String dni : claves) {
+			Cliente06 cliente = encontrados.get(dni);
+			if (cliente != null) {
+				resultado.put(dni, cliente);
+			}
+		}
+		return resultado;
+	}
+	// Conjunto de todos los DNI existentes, para validar importaciones sin consultar fila por fila
+	// Transacción de escritura: con réplica de lectura se consulta la primaria (datos al día)
+	@Transactional
+	public Set<String> listarDnis() {
+		return new HashSet<>(clientesRepositorio.listarDnis());
+	}
+	// Alta de un lote de clientes nuevos en una sola transacción.
+	// Se usa persist (no save): el dni es asignado y save haría un merge con un SELECT por cliente.
+	// Los INSERT se agrupan según spring.jpa.properties.hibernate.jdbc.batch_size.
+	// Los clientes nuevos no están en la caché (no se guardan resultados nulos), no hay nada que desalojar.
+	@Transactional
+	public void guardarLote(List<Cliente06> clientes) {
+		for (Cliente06 cliente : clientes) {
+			entityManager.persist(cliente);
+			publicar(CambioCliente.Tipo.ALTA, cliente);
+		}
+	}
+
+	private void publicar(CambioCliente.Tipo tipo, Cliente06 cliente) {
+		eventos.publishEvent(new CambioCliente(tipo, cliente.getDni(), cliente.getNombre(), cliente.getApellido()));
+	}
 	//Escribir servicios adicionales si es necesario que no estén 
 	// definidos en la interfaz RequerimientosCRUD<T> de forma genérica.
 	//Por ejemplo, si se necesita buscar un cliente por su nombre, se puede definir un método específico.
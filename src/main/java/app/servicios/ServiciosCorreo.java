@@ -1,15 +1,44 @@
 package app.servicios;
 
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import io.micrometer.core.annotation.Timed;
+
+import app.config.CacheConfig;
+import app.dto.ClienteCorreoFila;
+import app.dto.CorreoDeCliente;
+import app.dto.CorreoResumen;
+import app.dto.Pagina;
+import app.entidades.Cliente06;
 import app.entidades.Correo06;
+import app.eventos.CambioCorreo;
+import app.excepciones.ErrorControlado;
 import app.repositorios.CorreosRepositorio;
 import app.requerimientos.RequerimientosCRUD;
 import app.requerimientos.RequerimientosFuncionesDeNegocio;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 
+// Tiempo y cantidad de llamadas de cada método (etiquetas class y method), ver MetricasConfig
+@Timed(value = "servicios.correo", histogram = true)
 @Service
 public class ServiciosCorreo implements RequerimientosCRUD<Correo06>, RequerimientosFuncionesDeNegocio {
     //En esta clase se implementan los servicios CRUD para la entidad Correo06.
@@ -24,58 +53,283 @@ public class ServiciosCorreo implements RequerimientosCRUD<Correo06>, Requerimie
 	
 	@Autowired
 	private CorreosRepositorio correosRepositorio;
+	@PersistenceContext
+	private EntityManager entityManager;
+	// Las escrituras publican un CambioCorreo para los datos derivados (índice de búsqueda, etc.)
+	@Autowired
+	private ApplicationEventPublisher eventos;
+	@Autowired
+	private CacheCorreosPorId cacheCorreosPorId;
+	@Autowired
+	private ServiciosCliente serviciosCliente;
+	// Cantidad de claves por consulta IN en las búsquedas de varios correos
+	@Value("${app.multiget.tamanio-bloque:500}")
+	private int tamanioBloque;
+	// Cada cuántas filas se vacía el contexto de persistencia durante un recorrido
+	private static final int FILAS_POR_LIMPIEZA = 1000;
+	// Los listados con ETag (listarTodos, listarPorDni y los de correos con clientes) usan
+	// transacciones de escritura: con réplica de lectura se consultan en la primaria, al día
+	// con el ETag de VersionesTablas (ver ServiciosCliente.listarTodos).
 	@Override
+	@Transactional
 	public List<Correo06> listarTodos() {
-        return correosRepositorio.findAll();
+		// El listado incluye el cliente de cada correo: se trae con un join fetch en una sola
+		// consulta, en lugar de una consulta extra por cada cliente (N+1).
+        return correosRepositorio.buscarCorreosConClientes();
     }
+	// Las escrituras desalojan la lista de correos del cliente afectado
 	@Override
+	@CacheEvict(cacheNames = CacheConfig.CORREOS_POR_DNI, key = "#correo.cliente06.dni")
 	public void actualizar(Correo06 correo) {
-		correosRepositorio.save(correo);
+		Correo06 guardado = correosRepositorio.save(correo);
+		publicar(CambioCorreo.Tipo.MODIFICACION, guardado);
 	}
 	@Override
+	@Transactional
 	public Correo06 buscarPorId(String id) {
-		int idInt = Integer.parseInt(id);
-        return correosRepositorio.findById(idInt).orElse(null);
+		return buscarPorId(idCorreo(id));
+    }
+	// Primero la caché LRU por idCorreo; el cliente sale de la caché de clientes.
+	// Devuelve siempre una instancia nueva, que el llamador puede modificar.
+	// La carga de las cachés va a la primaria (transacción de escritura, también en la versión
+	// con String, que llama a esta sin pasar por el proxy): no se guardan datos atrasados.
+	// Esta y las demás variantes con idCorreo int son propias de este servicio (la clave de
+	// correo es numérica): evitan convertir el id a String y volver a convertirlo.
+	@Transactional
+	public Correo06 buscarPorId(int id) {
+		Correo06 correo = cacheCorreosPorId.buscar(id);
+		if (correo != null) {
+			Cliente06 cliente = serviciosCliente.buscarPorId(correo.getCliente06().getDni());
+			if (cliente != null) {
+				correo.setCliente06(cliente);
+				return correo;
+			}
+		}
+		long invalidaciones = cacheCorreosPorId.invalidaciones();
+		correo = correosRepositorio.findConClienteByIdCorreo(id).orElse(null);
+		if (correo != null) {
+			cacheCorreosPorId.guardar(id, correo.getCorreo(), correo.getCliente06().getDni(), invalidaciones);
+		}
+		return correo;
     }
 	@Override
+	@Transactional
+	@CacheEvict(cacheNames = CacheConfig.CORREOS_POR_DNI, key = "#correo.cliente06.dni")
 	public void guardar(Correo06 correo) {
-		correosRepositorio.save(correo);
+		if (correo.getIdCorreo() == 0 && correo.getCliente06() != null) {
+			// Correo nuevo de un cliente que ya existe: sin cascada, Hibernate consultaría el cliente
+			// para saber si es nuevo. Con una referencia de la sesión actual se inserta directamente.
+			correo.setCliente06(entityManager.getReference(Cliente06.class, correo.getCliente06().getDni()));
+		}
+		boolean nuevo = correo.getIdCorreo() == 0;
+		Correo06 guardado = correosRepositorio.save(correo);
+		publicar(nuevo ? CambioCorreo.Tipo.ALTA : CambioCorreo.Tipo.MODIFICACION, guardado);
     }
+	// Solo se conoce el idCorreo, no el DNI del cliente: se vacía la caché de correos por DNI.
+	// Las llamadas a eliminarPorId(int) y borrarPorId son internas (no pasan por el proxy de
+	// Spring): la transacción que necesita el DELETE de borrarPorId empieza aquí.
 	@Override
+	@Transactional
+	@CacheEvict(cacheNames = CacheConfig.CORREOS_POR_DNI, allEntries = true)
 	public void eliminarPorId(String id) {
-		int idInt = Integer.parseInt(id);
-		correosRepositorio.deleteById(idInt);
+		eliminarPorId(idCorreo(id));
+    }
+	@Transactional
+	@CacheEvict(cacheNames = CacheConfig.CORREOS_POR_DNI, allEntries = true)
+	public void eliminarPorId(int id) {
+		borrarPorId(id);
     }
+	// Borrado en una sola sentencia (deleteById lee la entidad antes de borrarla).
+	// false si no existe un correo con ese idCorreo.
+	@Transactional
+	@CacheEvict(cacheNames = CacheConfig.CORREOS_POR_DNI, allEntries = true)
+	public boolean borrarPorId(int id) {
+		if (correosRepositorio.borrarPorId(id) == 0) {
+			return false;
+		}
+		eventos.publishEvent(new CambioCorreo(CambioCorreo.Tipo.BAJA, id, null, null));
+		return true;
+    }
+	// Cambio de la dirección en una sola sentencia, sin el merge de save.
+	// El dni del cliente solo se usa para desalojar sus correos de la caché y para el evento.
+	// false si no existe un correo con ese idCorreo.
+	@Transactional
+	@CacheEvict(cacheNames = CacheConfig.CORREOS_POR_DNI, key = "#dni")
+	public boolean actualizarCorreo(int id, String correo, String dni) {
+		if (correosRepositorio.actualizarCorreo(id, correo) == 0) {
+			return false;
+		}
+		eventos.publishEvent(new CambioCorreo(CambioCorreo.Tipo.MODIFICACION, id, correo, dni));
+		return true;
+    }
+	@Override
+	@CacheEvict(cacheNames = CacheConfig.CORREOS_POR_DNI, key = "#correo.cliente06.dni")
 	public void eliminar(Correo06 correo) {
 		correosRepositorio.delete(correo);
+		publicar(CambioCorreo.Tipo.BAJA, correo);
     }
 	@Override
 	public boolean existePorId(String id) {
-		int idInt = Integer.parseInt(id);
-        return correosRepositorio.existsById(idInt);
+        return existePorId(idCorreo(id));
+    }
+	public boolean existePorId(int id) {
+        return correosRepositorio.existsById(id);
     }
 	// Métodos personalizados:
 	//Copilot necesito un método parecido a listar todos los registros de la tabla correos, 
 	//  pero que esten filtrados por el dni del cliente
 	@Override
+	@Transactional
+	@Cacheable(cacheNames = CacheConfig.CORREOS_POR_DNI, key = "#dni")
 	public List<Correo06> listarPorDni(String dni) {
-		return correosRepositorio.findAll().stream()
-				.filter(correo -> correo.getCliente06() != null && correo.getCliente06().getDni().equals(dni)).toList();
+		return correosRepositorio.buscarPorDniCliente(dni);
 	}
 	//Copilot necesito un método para mostrar todos los registros de la tabla clientes y los correos de esos clientes,
 	// es decir la intersección de ambos conjuntos o cuando la clave primaria de clientes es igual a la clave 
 	// foránea de correos.
 	@Override
+	@Transactional
 	public List<Correo06> listarCorreosConClientes() {
-		return correosRepositorio.findAll().stream().filter(correo -> correo.getCliente06() != null).toList();
+		return correosRepositorio.buscarCorreosConClientes();
 	}
 	//Copilot necesito un método para mostrar todos los registros de la tabla clientes y los correos de esos clientes,
 	// es decir la intersección de ambos conjuntos o cuando la clave primaria de clientes es igual a la clave
 	// foránea de correos, pero que esten filtrados por el dni del cliente.
 	@Override
+	@Transactional
+	@Cacheable(cacheNames = CacheConfig.CORREOS_POR_DNI, key = "#dni")
 	public List<Correo06> listarCorreosConClientesPorDni(String dni) {
-		return correosRepositorio.findAll().stream()
-				.filter(correo -> correo.getCliente06() != null && correo.getCliente06().getDni().equals(dni)).toList();
+		return correosRepositorio.buscarPorDniCliente(dni);
+	}
+	// Listado paginado por cursor: devuelve hasta "limite" correos con idCorreo mayor a "desde".
+	@Transactional(readOnly = true)
+	public Pagina<Correo06> listarPagina(int desde, int limite) {
+		List<Correo06> correos = correosRepositorio.buscarPagina(desde, Limit.of(limite));
+		String siguiente = correos.size() < limite ? null
+				: String.valueOf(correos.get(correos.size() - 1).getIdCorreo());
+		return new Pagina<>(correos, siguiente);
+	}
+	// Recorre todos los correos con su cliente sin armar una lista en memoria.
+	// Las entidades ya entregadas al consumidor se descartan del contexto de persistencia
+	// cada FILAS_POR_LIMPIEZA filas, así la memoria usada no depende del tamaño de la tabla.
+	@Transactional(readOnly = true)
+	public void recorrerCorreosConClientes(Consumer<Correo06> consumidor) {
+		try (Stream<Correo06> correos = correosRepositorio.recorrerCorreosConClientes()) {
+			int filas = 0;
+			for (Correo06 correo : (Iterable<Correo06>) correos::iterator) {
+				consumidor.accept(correo);
+				if (++filas % FILAS_POR_LIMPIEZA == 0) {
+					entityManager.clear();
+				}
+			}
+		}
+	}
+	// Recorre el join cliente ⋈ correo fila por fila con el cursor del servidor (exportación).
+	// Si el consumidor lanza una excepción (por ejemplo, el cliente HTTP se desconectó),
+	// el recorrido se corta y el cursor se cierra.
+	@Transactional(readOnly = true)
+	public void recorrerClientesCorreos(Consumer<ClienteCorreoFila> consumidor) {
+		try (Stream<ClienteCorreoFila> filas = correosRepositorio.recorrerClientesCorreos()) {
+			filas.forEach(consumidor);
+		}
+	}
+	// Alta (idCorreo 0) o modificación de un lote de correos en una sola transacción.
+	// Los INSERT y UPDATE se agrupan según spring.jpa.properties.hibernate.jdbc.batch_size
+	// (posible porque idCorreo usa una tabla de secuencia y no IDENTITY).
+	// Devuelve los correos guardados, en el mismo orden, con su idCorreo asignado.
+	@Transactional
+	@CacheEvict(cacheNames = CacheConfig.CORREOS_POR_DNI, allEntries = true)
+	public List<Correo06> guardarLote(List<Correo06> correos) {
+		boolean[] nuevos = new boolean[correos.size()];
+		for (int i = 0; i < nuevos.length; i++) {
+			Correo06 correo = correos.get(i);
+			nuevos[i] = correo.getIdCorreo() == 0;
+			// Los clientes ya fueron validados: se usan referencias, sin consultarlos
+			correo.setCliente06(entityManager.getReference(Cliente06.class, correo.getCliente06().getDni()));
+		}
+		List<Correo06> guardados = correosRepositorio.saveAll(correos);
+		for (int i = 0; i < nuevos.length; i++) {
+			publicar(nuevos[i] ? CambioCorreo.Tipo.ALTA : CambioCorreo.Tipo.MODIFICACION, guardados.get(i));
+		}
+		return guardados;
+	}
+	// Búsqueda de varios correos (con su cliente) por idCorreo: consultas IN de a tamanioBloque
+	// claves, en una sola transacción (una conexión). Devuelve idCorreo -> correo en el orden
+	// recibido; sin los inexistentes.
+	@Transactional(readOnly = true)
+	public Map<Integer, Correo06> buscarPorIds(Collection<Integer> ids) {
+		List<Integer> claves = List.copyOf(new LinkedHashSet<>(ids));
+		Map<Integer, Correo06> encontrados = new HashMap<>(claves.size() * 2);
+		for (int desde = 0; desde < claves.size(); desde += tamanioBloque) {
+			List<Integer> bloque = claves.subList(desde, Math.min(desde + tamanioBloque, claves.size()));
+			for (Correo06 correo : correosRepositorio.buscarPorIds(bloque)) {
+				encontrados.put(correo.getIdCorreo(), correo);
+			}
+		}
+		Map<Integer, Correo06> resultado = new LinkedHashMap<>(encontrados.size() * 2);
+		for (Integer id : claves) {
+			Correo06 correo = encontrados.get(id);
+			if (correo != null) {
+				resultado.put(id, correo);
+			}
+		}
+		return resultado;
+	}
+	// true si el correo ya existe en la tabla (ver FiltroCorreos, que evita esta consulta
+	// para los correos nuevos).
+	// Transacción de escritura: con réplica de lectura se consulta la primaria (datos al día),
+	// como ServiciosCliente.listarDnis
+	@Transactional
+	public boolean existeCorreo(String correo) {
+		return correosRepositorio.existsByCorreo(correo);
+	}
+	// Correos de la colección que ya existen en la tabla (en la primaria, como existeCorreo)
+	@Transactional
+	public Set<String> buscarCorreosExistentes(Collection<String> correos) {
+		return new HashSet<>(correosRepositorio.buscarCorreosExistentes(correos));
+	}
+	// Recorre idCorreo y correo de toda la tabla sin cargar entidades.
+	// Los dos recorridos construyen el estado inicial de IndiceCorreos, FiltroCorreos y
+	// ContadoresCorreos, que después se actualiza con los eventos de cada commit: se leen de la
+	// primaria (transacción de escritura), nunca de una réplica atrasada.
+	@Transactional
+	public void recorrerResumenes(Consumer<CorreoResumen> consumidor) {
+		try (Stream<CorreoResumen> resumenes = correosRepositorio.recorrerResumenes()) {
+			resumenes.forEach(consumidor);
+		}
+	}
+	// Recorre idCorreo, correo y dni de toda la tabla sin cargar entidades (en la primaria)
+	@Transactional
+	public void recorrerCorreosDeClientes(Consumer<CorreoDeCliente> consumidor) {
+		try (Stream<CorreoDeCliente> filas = correosRepositorio.recorrerCorreosDeClientes()) {
+			filas.forEach(consumidor);
+		}
+	}
+	
+	// Convierte el idCorreo recibido en la URL. A diferencia de Integer.parseInt, un valor
+	// inválido no crea una NumberFormatException con su pila: lanza la constante ID_INVALIDO.
+	public static int idCorreo(String id) {
+		int largo = id.length();
+		if (largo == 0 || largo > 10) {
+			throw ErrorControlado.ID_INVALIDO;
+		}
+		long valor = 0;
+		for (int i = 0; i < largo; i++) {
+			char c = id.charAt(i);
+			if (c < '0' || c > '9') {
+				throw ErrorControlado.ID_INVALIDO;
+			}
+			valor = valor * 10 + (c - '0');
+		}
+		if (valor > Integer.MAX_VALUE) {
+			throw ErrorControlado.ID_INVALIDO;
+		}
+		return (int) valor;
+	}
+
+	private void publicar(CambioCorreo.Tipo tipo, Correo06 correo) {
+		String dni = correo.getCliente06() == null ? null : correo.getCliente06().getDni();
+		eventos.publishEvent(new CambioCorreo(tipo, correo.getIdCorreo(), correo.getCorreo(), dni));
 	}
 
 }
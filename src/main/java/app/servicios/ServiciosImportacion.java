@@ -0,0 +1,319 @@
+package app.servicios;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import app.dto.ResultadoImportacion;
+import app.entidades.Cliente06;
+import app.entidades.Correo06;
+
+@Service
+public class ServiciosImportacion {
+	//En esta clase se implementa la importación masiva de clientes y correos.
+	// El archivo (CSV o NDJSON) se lee línea por línea, se valida cada fila y las filas
+	// válidas se guardan de a lotes con ServiciosCliente/ServiciosCorreo.
+	// Si un lote falla en la base de datos, se reintenta fila por fila para informar
+	// el error de cada una sin descartar el resto del lote. Los errores de la base se informan
+	// con un mensaje fijo (ver ErroresBaseDatos) y la causa queda en el log.
+
+	private static final Logger LOG = LoggerFactory.getLogger(ServiciosImportacion.class);
+
+	public ServiciosImportacion() {
+		// Constructor vacío
+	}
+
+	@Autowired
+	private ServiciosCliente serviciosCliente;
+	@Autowired
+	private ServiciosCorreo serviciosCorreo;
+	@Autowired
+	private FiltroCorreos filtroCorreos;
+	@Autowired
+	private ObjectMapper objectMapper;
+	// Filas por transacción
+	@Value("${app.importacion.tamanio-lote:1000}")
+	private int tamanioLote;
+	// Cantidad máxima de errores detallados en la respuesta
+	@Value("${app.importacion.errores-maximos:1000}")
+	private int erroresMaximos;
+
+	// Fila válida pendiente de guardar, con su número de línea para informar errores
+	private static class Fila {
+		private final long linea;
+		private final String[] campos;
+
+		private Fila(long linea, String[] campos) {
+			this.linea = linea;
+			this.campos = campos;
+		}
+	}
+
+	// Importa clientes con los campos dni, nombre y apellido
+	public ResultadoImportacion importarClientes(BufferedReader lector, boolean ndjson) throws IOException {
+		ResultadoImportacion resultado = new ResultadoImportacion(erroresMaximos);
+		Set<String> dnis = serviciosCliente.listarDnis(); // DNI existentes más los ya importados
+		List<Fila> lote = new ArrayList<>(tamanioLote);
+		String linea;
+		long numero = 0;
+		while ((linea = lector.readLine()) != null) {
+			numero++;
+			String[] campos = leerFila(linea, ndjson, numero, resultado, "dni", "nombre", "apellido");
+			if (campos == null) {
+				continue;
+			}
+			String error = validarCliente(campos);
+			if (error == null && !dnis.add(campos[0])) {
+				error = "Existe un cliente con ese DNI: " + campos[0];
+			}
+			if (error != null) {
+				resultado.agregarError(numero, error);
+				continue;
+			}
+			lote.add(new Fila(numero, campos));
+			if (lote.size() == tamanioLote) {
+				guardarClientes(lote, resultado);
+				lote.clear();
+			}
+		}
+		if (!lote.isEmpty()) {
+			guardarClientes(lote, resultado);
+		}
+		return resultado;
+	}
+
+	// Importa correos con los campos dni y correo. El dni debe existir.
+	public ResultadoImportacion importarCorreos(BufferedReader lector, boolean ndjson) throws IOException {
+		ResultadoImportacion resultado = new ResultadoImportacion(erroresMaximos);
+		Set<String> dnis = serviciosCliente.listarDnis();
+		List<Fila> lote = new ArrayList<>(tamanioLote);
+		String linea;
+		long numero = 0;
+		while ((linea = lector.readLine()) != null) {
+			numero++;
+			String[] campos = leerFila(linea, ndjson, numero, resultado, "dni", "correo");
+			if (campos == null) {
+				continue;
+			}
+			String error = validarCorreo(campos);
+			if (error == null && !dnis.contains(campos[0])) {
+				error = "No existe un cliente con el DNI: " + campos[0];
+			}
+			if (error != null) {
+				resultado.agregarError(numero, error);
+				continue;
+			}
+			lote.add(new Fila(numero, campos));
+			if (lote.size() == tamanioLote) {
+				guardarCorreos(lote, resultado);
+				lote.clear();
+			}
+		}
+		if (!lote.isEmpty()) {
+			guardarCorreos(lote, resultado);
+		}
+		return resultado;
+	}
+
+	private void guardarClientes(List<Fila> lote, ResultadoImportacion resultado) {
+		try {
+			serviciosCliente.guardarLote(lote.stream().map(this::nuevoCliente).toList());
+			resultado.sumarGuardadas(lote.size());
+		} catch (DataAccessException e) {
+			// El lote se revirtió completo: se reintenta fila por fila
+			for (Fila fila : lote) {
+				try {
+					serviciosCliente.guardarLote(List.of(nuevoCliente(fila)));
+					resultado.sumarGuardadas(1);
+				} catch (DataAccessException ex) {
+					LOG.warn("Importación: no se pudo guardar el cliente de la línea {}", fila.linea, ex);
+					resultado.agregarError(fila.linea, "Error al guardar el cliente: " + ErroresBaseDatos.mensajeCliente(ex));
+				}
+			}
+		}
+	}
+
+	private void guardarCorreos(List<Fila> lote, ResultadoImportacion resultado) {
+		// Correos repetidos: contra la tabla y dentro del mismo lote. A la tabla solo se consultan
+		// (una consulta por lote) los correos que el filtro de Bloom no descarta como nuevos.
+		// Se comparan sin distinguir mayúsculas, como la restricción unique de la columna.
+		Set<String> existentes = filtroCorreos.existentes(lote.stream().map(f -> f.campos[1]).toList());
+		Set<String> vistos = new HashSet<>();
+		List<Fila> validas = new ArrayList<>(lote.size());
+		for (Fila fila : lote) {
+			String clave = FiltroCorreos.normalizar(fila.campos[1]);
+			if (existentes.contains(clave) || !vistos.add(clave)) {
+				resultado.agregarError(fila.linea, "El correo ya existe: " + fila.campos[1]);
+			} else {
+				validas.add(fila);
+			}
+		}
+		if (validas.isEmpty()) {
+			return;
+		}
+		try {
+			serviciosCorreo.guardarLote(validas.stream().map(this::nuevoCorreo).toList());
+			resultado.sumarGuardadas(validas.size());
+		} catch (DataAccessException e) {
+			// El lote se revirtió completo: se reintenta fila por fila
+			for (Fila fila : validas) {
+				try {
+					serviciosCorreo.guardarLote(List.of(nuevoCorreo(fila)));
+					resultado.sumarGuardadas(1);
+				} catch (DataAccessException ex) {
+					LOG.warn("Importación: no se pudo guardar el correo de la línea {}", fila.linea, ex);
+					resultado.agregarError(fila.linea, "Error al guardar el correo: " + ErroresBaseDatos.mensajeCorreo(ex));
+				}
+			}
+		}
+	}
+
+	// Se crean entidades nuevas en cada intento: un intento fallido pudo asignarles un id
+	private Cliente06 nuevoCliente(Fila fila) {
+		return new Cliente06(fila.campos[0], fila.campos[1], fila.campos[2]);
+	}
+
+	private Correo06 nuevoCorreo(Fila fila) {
+		Cliente06 cliente = new Cliente06();
+		cliente.setDni(fila.campos[0]);
+		return new Correo06(fila.campos[1], cliente);
+	}
+
+	// Devuelve los campos de la línea sin espacios, o null si la línea se saltea
+	// (vacía, encabezado CSV o con formato inválido, que se informa como error).
+	private String[] leerFila(String linea, boolean ndjson, long numero, ResultadoImportacion resultado,
+			String... nombres) {
+		if (linea.isBlank()) {
+			return null;
+		}
+		String[] campos = new String[nombres.length];
+		if (ndjson) {
+			JsonNode nodo;
+			try {
+				nodo = objectMapper.readTree(linea);
+			} catch (JsonProcessingException e) {
+				resultado.sumarLeida();
+				resultado.agregarError(numero, "JSON inválido: " + e.getOriginalMessage());
+				return null;
+			}
+			for (int i = 0; i < nombres.length; i++) {
+				JsonNode valor = nodo.get(nombres[i]);
+				campos[i] = valor == null || valor.isNull() ? "" : valor.asText().trim();
+			}
+		} else {
+			List<String> valores = camposCsv(linea);
+			if (numero == 1 && valores != null && valores.get(0).equalsIgnoreCase(nombres[0])) {
+				return null; // Encabezado
+			}
+			resultado.sumarLeida();
+			if (valores == null) {
+				resultado.agregarError(numero, "CSV inválido: comillas sin cerrar o mal ubicadas.");
+				return null;
+			}
+			if (valores.size() > nombres.length) {
+				// Por ejemplo, una coma sin comillas dentro de un campo: las columnas se correrían
+				resultado.agregarError(numero, "CSV inválido: se esperaban " + nombres.length + " campos y hay "
+						+ valores.size() + ".");
+				return null;
+			}
+			for (int i = 0; i < nombres.length; i++) {
+				campos[i] = i < valores.size() ? valores.get(i) : "";
+			}
+			return campos;
+		}
+		resultado.sumarLeida();
+		return campos;
+	}
+
+	// Campos de una línea CSV (RFC 4180), sin espacios alrededor: separados por comas; un campo
+	// entre comillas puede contener comas y comillas duplicadas (""). Devuelve null si unas
+	// comillas no cierran, si hay texto después de la comilla de cierre o si un campo sin
+	// comillas contiene comillas. Un campo no puede ocupar varias líneas.
+	private static List<String> camposCsv(String linea) {
+		List<String> campos = new ArrayList<>();
+		StringBuilder campo = new StringBuilder();
+		int largo = linea.length();
+		int i = 0;
+		while (true) {
+			while (i < largo && linea.charAt(i) == ' ') {
+				i++;
+			}
+			if (i < largo && linea.charAt(i) == '"') {
+				i++;
+				while (true) {
+					if (i == largo) {
+						return null; // Comillas sin cerrar
+					}
+					char c = linea.charAt(i++);
+					if (c != '"') {
+						campo.append(c);
+					} else if (i < largo && linea.charAt(i) == '"') {
+						campo.append('"');
+						i++;
+					} else {
+						break;
+					}
+				}
+				while (i < largo && linea.charAt(i) == ' ') {
+					i++;
+				}
+				if (i < largo && linea.charAt(i) != ',') {
+					return null;
+				}
+			} else {
+				while (i < largo && linea.charAt(i) != ',') {
+					char c = linea.charAt(i++);
+					if (c == '"') {
+						return null;
+					}
+					campo.append(c);
+				}
+			}
+			campos.add(campo.toString().trim());
+			campo.setLength(0);
+			if (i == largo) {
+				return campos;
+			}
+			i++; // La coma
+		}
+	}
+
+	// Mismas restricciones que las columnas de la tabla cliente
+	private static String validarCliente(String[] campos) {
+		if (campos[0].isEmpty() || campos[0].length() > 10) {
+			return "El campo DNI no es válido o está vacío.";
+		}
+		if (campos[1].isEmpty() || campos[1].length() > 50) {
+			return "El campo nombre no es válido o está vacío.";
+		}
+		if (campos[2].isEmpty() || campos[2].length() > 50) {
+			return "El campo apellido no es válido o está vacío.";
+		}
+		return null;
+	}
+
+	// Mismas restricciones que las columnas de la tabla correo
+	private static String validarCorreo(String[] campos) {
+		if (campos[0].isEmpty() || campos[0].length() > 10) {
+			return "El campo DNI no es válido o está vacío.";
+		}
+		if (campos[1].isEmpty() || campos[1].length() > 100 || campos[1].indexOf('@') < 1) {
+			return "El campo correo no es válido o está vacío.";
+		}
+		return null;
+	}
+}
@@ -0,0 +1,51 @@
+package app.servicios;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import app.eventos.CambioCliente;
+import app.eventos.CambioCorreo;
+
+@Component
+public class VersionesTablas {
+	//Contador de versión de las tablas cliente y correo, para los ETag de las respuestas HTTP.
+	// Cada escritura suma uno después del commit: una respuesta armada con la versión
+	// anterior nunca queda guardada con la versión nueva (a lo sumo se vuelve a pedir).
+	// - cliente: se incrementa con cada CambioCliente que publica ServiciosCliente.
+	// - correo: se incrementa con cada CambioCorreo que publica ServiciosCorreo.
+	//Los listados de correos incluyen los datos del cliente: su ETag usa las dos versiones.
+	//El inicio forma parte del ETag: después de reiniciar no se repiten valores anteriores.
+	//Los ETag son débiles (W/): la misma versión puede enviarse con o sin gzip, y Tomcat
+	// no comprime las respuestas con ETag fuerte.
+	//Los contadores están en memoria: con varias instancias de la aplicación, cada una
+	// tiene los suyos, y los cambios hechos por otra instancia no invalidan los ETag.
+
+	public VersionesTablas() {
+		// Constructor vacío
+	}
+	private final long inicio = System.currentTimeMillis();
+	private final AtomicLong clientes = new AtomicLong();
+	private final AtomicLong correos = new AtomicLong();
+
+	@TransactionalEventListener(fallbackExecution = true)
+	public void alCambiarCliente(CambioCliente cambio) {
+		clientes.incrementAndGet();
+	}
+
+	@TransactionalEventListener(fallbackExecution = true)
+	public void alCambiarCorreo(CambioCorreo cambio) {
+		correos.incrementAndGet();
+	}
+
+	// ETag de las respuestas con datos de clientes
+	public String etagClientes() {
+		return "W/\"" + inicio + "-" + clientes.get() + "\"";
+	}
+
+	// ETag de las respuestas con datos de correos y de sus clientes
+	public String etagCorreos() {
+		return "W/\"" + inicio + "-" + clientes.get() + "-" + correos.get() + "\"";
+	}
+}
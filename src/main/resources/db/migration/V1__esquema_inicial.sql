@@ -0,0 +1,31 @@
+-- Esquema inicial: las tablas que creaba spring.jpa.hibernate.ddl-auto=update.
+-- En una base existente (creada con ddl-auto) esta versión no se ejecuta:
+-- spring.flyway.baseline-on-migrate la registra como aplicada y se sigue con V2.
+
+create table cliente (
+	dni varchar(10) not null,
+	apellido varchar(50) not null,
+	nombre varchar(50) not null,
+	primary key (dni)
+) engine=InnoDB;
+
+create table correo (
+	id_correo integer not null,
+	cliente06dnifk varchar(10) not null,
+	correo varchar(100) not null,
+	primary key (id_correo)
+) engine=InnoDB;
+
+-- Secuencia de idCorreo (ver Correo06 y SecuenciaCorreoConfig)
+create table correo_secuencia (
+	nombre varchar(255) not null,
+	siguiente bigint,
+	primary key (nombre)
+) engine=InnoDB;
+
+insert into correo_secuencia (nombre, siguiente) values ('correo', 0);
+
+-- Índices y clave foránea de correo (V2 los agrega en las bases anteriores que no los tengan)
+create unique index uk_correo_correo on correo (correo);
+create index idx_correo_cliente06DNIfk on correo (cliente06dnifk);
+alter table correo add constraint fk_correo_cliente foreign key (cliente06dnifk) references cliente (dni);
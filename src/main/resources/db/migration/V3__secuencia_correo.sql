@@ -0,0 +1,14 @@
+-- Secuencia de idCorreo en las bases creadas antes de Flyway.
+-- spring.flyway.baseline-on-migrate registra V1 como aplicada sin ejecutarla: en esas bases
+-- (idCorreo con IDENTITY) la tabla correo_secuencia no existe. En una base nueva V1 ya la creó
+-- y esta migración no hace nada. SecuenciaCorreoConfig ajusta después el valor inicial.
+
+create table if not exists correo_secuencia (
+	nombre varchar(255) not null,
+	siguiente bigint,
+	primary key (nombre)
+) engine=InnoDB;
+
+insert into correo_secuencia (nombre, siguiente)
+	select 'correo', 0 from dual
+	where not exists (select 1 from correo_secuencia where nombre = 'correo');
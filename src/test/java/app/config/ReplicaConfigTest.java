@@ -0,0 +1,146 @@
+package app.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.init.ScriptUtils;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import app.entidades.Cliente06;
+import app.entidades.Correo06;
+import app.servicios.IndiceCorreos;
+import app.servicios.ServiciosCliente;
+import app.servicios.ServiciosCorreo;
+
+// Réplica de lectura con dos bases H2 independientes (sin replicación entre ellas): un dato
+// escrito solo en una de las dos muestra a qué base fue cada operación.
+// - Transacciones readOnly: réplica. Escrituras: primaria.
+// - Lectura propia: después de una escritura, las lecturas del mismo hilo van a la primaria.
+// - Las lecturas que duran más que la petición (listados con ETag, cargas de las cachés,
+//   estado inicial de los índices en memoria, validación de duplicados) van a la primaria.
+@SpringBootTest
+@ActiveProfiles("test")
+class ReplicaConfigTest {
+
+	private static final String URL_REPLICA = "jdbc:h2:mem:replica-" + UUID.randomUUID()
+			+ ";MODE=MySQL;DB_CLOSE_DELAY=-1";
+
+	// Flyway solo migra la primaria: la réplica recibe el mismo esquema antes de iniciar el
+	// contexto (los índices en memoria se construyen al iniciar leyendo la réplica)
+	@DynamicPropertySource
+	static void replica(DynamicPropertyRegistry propiedades) throws SQLException {
+		try (Connection conexion = DriverManager.getConnection(URL_REPLICA, "sa", "")) {
+			ScriptUtils.executeSqlScript(conexion, new ClassPathResource("db/migration/V1__esquema_inicial.sql"));
+		}
+		propiedades.add("app.replica.habilitada", () -> "true");
+		propiedades.add("app.replica.lectura-propia", () -> "true");
+		propiedades.add("app.replica.datasource.jdbc-url", () -> URL_REPLICA);
+		propiedades.add("app.replica.datasource.username", () -> "sa");
+		propiedades.add("app.replica.datasource.password", () -> "");
+		propiedades.add("app.replica.datasource.driver-class-name", () -> "org.h2.Driver");
+	}
+
+	@Autowired
+	private ServiciosCliente serviciosCliente;
+	@Autowired
+	private ServiciosCorreo serviciosCorreo;
+	@Autowired
+	private IndiceCorreos indiceCorreos;
+	@Autowired
+	@Qualifier("datosPrimaria")
+	private DataSource datosPrimaria;
+	@Autowired
+	@Qualifier("datosReplica")
+	private DataSource datosReplica;
+
+	@BeforeEach
+	void nuevaPeticion() {
+		RuteoDataSource.reiniciarLecturaPropia();
+	}
+
+	private static List<String> dnis(List<Cliente06> clientes) {
+		return clientes.stream().map(Cliente06::getDni).toList();
+	}
+
+	// Una página con todos los clientes (transacción readOnly)
+	private List<String> paginaDeClientes() {
+		return dnis(serviciosCliente.listarPagina("", 1000).getElementos());
+	}
+
+	private static int cantidad(DataSource base, String dni) {
+		return new JdbcTemplate(base).queryForObject("select count(*) from cliente where dni = ?", Integer.class, dni);
+	}
+
+	@Test
+	void escriturasVanALaPrimariaYLecturasALaReplica() {
+		serviciosCliente.guardar(new Cliente06("P1", "Pedro", "Primaria"));
+		assertThat(cantidad(datosPrimaria, "P1")).isEqualTo(1);
+		assertThat(cantidad(datosReplica, "P1")).isZero();
+
+		new JdbcTemplate(datosReplica).update("insert into cliente (dni, nombre, apellido) values ('R1', 'Rosa', 'Replica')");
+		RuteoDataSource.reiniciarLecturaPropia(); // Otra petición
+		assertThat(paginaDeClientes()).contains("R1").doesNotContain("P1");
+	}
+
+	@Test
+	void despuesDeEscribirSeLeeDeLaPrimaria() {
+		serviciosCliente.guardar(new Cliente06("P2", "Paula", "Primaria"));
+		assertThat(paginaDeClientes()).contains("P2");
+	}
+
+	@Test
+	void lecturasQueDuranMasQueLaPeticionVanALaPrimaria() {
+		JdbcTemplate primaria = new JdbcTemplate(datosPrimaria);
+		primaria.update("insert into cliente (dni, nombre, apellido) values ('P3', 'Pilar', 'Primaria')");
+		primaria.update("insert into correo (id_correo, cliente06dnifk, correo) values (900001, 'P3', 'solo@primaria.com')");
+		JdbcTemplate replica = new JdbcTemplate(datosReplica);
+		replica.update("insert into cliente (dni, nombre, apellido) values ('R3', 'Rita', 'Replica')");
+		replica.update("insert into correo (id_correo, cliente06dnifk, correo) values (900002, 'R3', 'solo@replica.com')");
+		RuteoDataSource.reiniciarLecturaPropia(); // Sin escrituras en esta petición
+
+		// Listados con ETag
+		assertThat(dnis(serviciosCliente.listarTodos())).contains("P3").doesNotContain("R3");
+		assertThat(serviciosCorreo.listarTodos()).extracting(Correo06::getCorreo).contains("solo@primaria.com");
+		assertThat(serviciosCorreo.listarCorreosConClientes()).extracting(Correo06::getCorreo)
+				.contains("solo@primaria.com").doesNotContain("solo@replica.com");
+		// Cargas de las cachés
+		assertThat(serviciosCliente.buscarPorId("P3")).isNotNull();
+		assertThat(serviciosCliente.buscarPorId("R3")).isNull();
+		assertThat(serviciosCorreo.buscarPorId(900001)).isNotNull();
+		assertThat(serviciosCorreo.buscarPorId("900002")).isNull();
+		assertThat(serviciosCorreo.listarPorDni("P3")).hasSize(1);
+		assertThat(serviciosCorreo.listarCorreosConClientesPorDni("P3")).hasSize(1);
+		// Validación de duplicados
+		assertThat(serviciosCorreo.existeCorreo("solo@primaria.com")).isTrue();
+		assertThat(serviciosCorreo.existeCorreo("solo@replica.com")).isFalse();
+		assertThat(serviciosCorreo.buscarCorreosExistentes(List.of("solo@primaria.com", "solo@replica.com")))
+				.containsExactly("solo@primaria.com");
+		// Estado inicial de IndiceCorreos, FiltroCorreos y ContadoresCorreos
+		List<String> resumenes = new ArrayList<>();
+		serviciosCorreo.recorrerResumenes(resumen -> resumenes.add(resumen.getCorreo()));
+		assertThat(resumenes).contains("solo@primaria.com").doesNotContain("solo@replica.com");
+		List<String> deClientes = new ArrayList<>();
+		serviciosCorreo.recorrerCorreosDeClientes(fila -> deClientes.add(fila.getDni()));
+		assertThat(deClientes).contains("P3").doesNotContain("R3");
+		indiceCorreos.construir();
+		assertThat(indiceCorreos.correo(900001)).isEqualTo("solo@primaria.com");
+		assertThat(indiceCorreos.correo(900002)).isNull();
+	}
+}
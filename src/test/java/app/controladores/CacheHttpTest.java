@@ -0,0 +1,59 @@
+package app.controladores;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.hasItem;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+// ETag y Vary de los listados que responden JSON, CBOR o Smile según la cabecera Accept:
+// el ETag de un formato no valida (304) una petición de otro formato.
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class CacheHttpTest {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	private String etag(MediaType tipo) throws Exception {
+		return mockMvc.perform(get("/clientes/listartodos").accept(tipo))
+				.andExpect(status().isOk())
+				.andExpect(content().contentTypeCompatibleWith(tipo))
+				.andExpect(header().stringValues(HttpHeaders.VARY, hasItem(HttpHeaders.ACCEPT)))
+				.andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+	}
+
+	@Test
+	void cadaFormatoTieneSuEtag() throws Exception {
+		String json = etag(MediaType.APPLICATION_JSON);
+		String cbor = etag(MediaType.APPLICATION_CBOR);
+		String smile = etag(new MediaType("application", "x-jackson-smile"));
+		assertThat(json).isNotNull();
+		assertThat(cbor).isNotEqualTo(json);
+		assertThat(smile).isNotEqualTo(json).isNotEqualTo(cbor);
+	}
+
+	@Test
+	void elEtagDeOtroFormatoNoDevuelve304() throws Exception {
+		String json = etag(MediaType.APPLICATION_JSON);
+		String cbor = etag(MediaType.APPLICATION_CBOR);
+		mockMvc.perform(get("/clientes/listartodos").accept(MediaType.APPLICATION_CBOR).header(HttpHeaders.IF_NONE_MATCH, json))
+				.andExpect(status().isOk())
+				.andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_CBOR));
+		mockMvc.perform(get("/clientes/listartodos").accept(MediaType.APPLICATION_CBOR).header(HttpHeaders.IF_NONE_MATCH, cbor))
+				.andExpect(status().isNotModified());
+		mockMvc.perform(get("/clientes/listartodos").header(HttpHeaders.IF_NONE_MATCH, json))
+				.andExpect(status().isNotModified());
+	}
+}
@@ -0,0 +1,124 @@
+package app.controladores;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import app.entidades.Cliente06;
+import app.eventos.CambioCliente;
+import app.servicios.RegistroCambios;
+import app.servicios.ServiciosCliente;
+
+// /cambios con el registro habilitado (en una carpeta temporal, con segmentos de 1MB y dos
+// retenidos): un alta aparece en los cambios y en una suscripción SSE abierta, pedir una
+// secuencia que no está en el registro responde 410 con CAMBIOS_NO_DISPONIBLES y al rotar
+// solo quedan los segmentos retenidos.
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class CambiosControladorTest {
+
+	// Líneas de unos 10KB: unas 100 por segmento
+	private static final String NOMBRE_LARGO = "n".repeat(10_000);
+
+	private static Path carpeta;
+
+	@DynamicPropertySource
+	static void registro(DynamicPropertyRegistry propiedades) throws IOException {
+		carpeta = Files.createTempDirectory("cambios");
+		propiedades.add("app.cambios.habilitado", () -> "true");
+		propiedades.add("app.cambios.directorio", carpeta::toString);
+		propiedades.add("app.cambios.tamanio-segmento", () -> "1MB");
+		propiedades.add("app.cambios.segmentos-retenidos", () -> "2");
+	}
+
+	@Autowired
+	private MockMvc mockMvc;
+	@Autowired
+	private ServiciosCliente serviciosCliente;
+	@Autowired
+	private RegistroCambios registroCambios;
+
+	@Test
+	void altaApareceEnLosCambios() throws Exception {
+		long desde = registroCambios.ultimaSecuencia();
+		serviciosCliente.guardar(new Cliente06("K1", "Karina", "Cambios"));
+		mockMvc.perform(get("/cambios").param("desde", Long.toString(desde)))
+				.andExpect(status().isOk())
+				.andExpect(content().string(containsString("\"secuencia\":" + (desde + 1))))
+				.andExpect(content().string(containsString("\"dni\":\"K1\"")));
+	}
+
+	@Test
+	void secuenciaFueraDelRegistroResponde410() throws Exception {
+		String futura = Long.toString(registroCambios.ultimaSecuencia() + 10);
+		mockMvc.perform(get("/cambios").param("desde", futura))
+				.andExpect(status().isGone())
+				.andExpect(jsonPath("$.codigo").value("CAMBIOS_NO_DISPONIBLES"));
+		mockMvc.perform(get("/cambios/eventos").param("desde", futura))
+				.andExpect(status().isGone());
+	}
+
+	@Test
+	void eventoLlegaALaSuscripcionDespuesDelCommit() throws Exception {
+		long desde = registroCambios.ultimaSecuencia();
+		MvcResult suscripcion = mockMvc.perform(get("/cambios/eventos"))
+				.andExpect(request().asyncStarted())
+				.andReturn();
+		try {
+			serviciosCliente.guardar(new Cliente06("K2", "Karina", "Eventos"));
+			String id = "id:" + (desde + 1) + "\n";
+			long limite = System.currentTimeMillis() + 5000;
+			while (!suscripcion.getResponse().getContentAsString().contains(id)
+					&& System.currentTimeMillis() < limite) {
+				Thread.sleep(20);
+			}
+			assertThat(suscripcion.getResponse().getContentAsString()).contains(id).contains("\"dni\":\"K2\"");
+		} finally {
+			suscripcion.getRequest().getAsyncContext().complete(); // El cliente se desconecta
+		}
+	}
+
+	@Test
+	void rotacionConservaLosSegmentosRetenidos() throws Exception {
+		long primera = registroCambios.ultimaSecuencia();
+		// Directo al registro: el nombre largo no entra en la tabla cliente
+		for (int i = 0; i < 250; i++) {
+			registroCambios.alCambiarCliente(new CambioCliente(CambioCliente.Tipo.ALTA, "R" + i, NOMBRE_LARGO, "Rotacion"));
+		}
+		try (Stream<Path> archivos = Files.list(carpeta)) {
+			assertThat(archivos.filter(archivo -> archivo.getFileName().toString().startsWith("cambios-"))).hasSize(2);
+		}
+		// Los cambios del segmento borrado ya no están: el consumidor vuelve a leer las tablas
+		mockMvc.perform(get("/cambios").param("desde", Long.toString(primera)))
+				.andExpect(status().isGone())
+				.andExpect(jsonPath("$.codigo").value("CAMBIOS_NO_DISPONIBLES"));
+		mockMvc.perform(get("/cambios/eventos").header("Last-Event-ID", Long.toString(primera)))
+				.andExpect(status().isGone());
+		// Los recientes se siguen leyendo
+		long ultima = registroCambios.ultimaSecuencia();
+		mockMvc.perform(get("/cambios").param("desde", Long.toString(ultima - 1)))
+				.andExpect(status().isOk())
+				.andExpect(content().string(containsString("\"secuencia\":" + ultima)))
+				.andExpect(content().string(containsString("\"dni\":\"R249\"")));
+	}
+}
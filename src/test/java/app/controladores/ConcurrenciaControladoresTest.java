@@ -0,0 +1,118 @@
+package app.controladores;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+// Prueba de carga de los controladores (singletons compartidos por todos los hilos de Tomcat):
+// miles de altas en paralelo, repartidas entre muchos clientes, sobre el servidor real.
+// Cada correo debe quedar con el cliente de su petición y cada respuesta con sus propios
+// datos; con estado compartido en el controlador, las peticiones se pisarían entre sí.
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class ConcurrenciaControladoresTest {
+
+	private static final int CLIENTES = 50;
+	private static final int CORREOS = 2000;
+	private static final int HILOS = 64;
+
+	@LocalServerPort
+	private int puerto;
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+	private HttpClient http;
+	private ExecutorService hilos;
+
+	@BeforeAll
+	void iniciar() {
+		http = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+		hilos = Executors.newFixedThreadPool(HILOS);
+	}
+
+	@AfterAll
+	void cerrar() {
+		hilos.shutdownNow();
+		http.close();
+	}
+
+	@Test
+	void altasEnParaleloQuedanConSuCliente() throws Exception {
+		List<Callable<String>> clientes = new ArrayList<>();
+		for (int c = 0; c < CLIENTES; c++) {
+			String dni = "C" + c;
+			clientes.add(() -> get("/clientes/guardar/" + dni + "/Nombre" + dni + "/Apellido" + dni));
+		}
+		List<String> respuestasClientes = ejecutar(clientes);
+		for (int c = 0; c < CLIENTES; c++) {
+			assertThat(respuestasClientes.get(c)).endsWith("con DNI: C" + c);
+		}
+
+		List<Callable<String>> correos = new ArrayList<>();
+		for (int i = 0; i < CORREOS; i++) {
+			String dni = "C" + (i % CLIENTES);
+			String correo = correo(i, dni);
+			correos.add(() -> get("/correos/guardar/" + dni + "/" + correo));
+		}
+		List<String> respuestasCorreos = ejecutar(correos);
+		for (int i = 0; i < CORREOS; i++) {
+			String dni = "C" + (i % CLIENTES);
+			assertThat(respuestasCorreos.get(i))
+					.isEqualTo("Correo agregado correctamente para el dni: " + dni + " - " + correo(i, dni));
+		}
+
+		// El correo lleva el dni de su petición: cada fila debe tener ese cliente
+		List<Map<String, Object>> filas = jdbcTemplate.queryForList(
+				"select correo, cliente06dnifk from correo where correo like '%@concurrencia.com'");
+		assertThat(filas).hasSize(CORREOS);
+		for (Map<String, Object> fila : filas) {
+			String correo = (String) fila.get("correo");
+			assertThat(fila.get("cliente06dnifk")).isEqualTo(correo.substring(correo.indexOf('.') + 1, correo.indexOf('@')));
+		}
+		assertThat(jdbcTemplate.queryForObject("select count(distinct id_correo) from correo where correo like '%@concurrencia.com'",
+				Integer.class)).isEqualTo(CORREOS);
+		assertThat(jdbcTemplate.queryForObject("select count(*) from cliente where dni like 'C%' and nombre = concat('Nombre', dni)",
+				Integer.class)).isEqualTo(CLIENTES);
+	}
+
+	private static String correo(int numero, String dni) {
+		return "c" + numero + "." + dni + "@concurrencia.com";
+	}
+
+	// Ejecuta las peticiones en paralelo y devuelve las respuestas en el mismo orden
+	private List<String> ejecutar(List<Callable<String>> peticiones) throws Exception {
+		List<String> respuestas = new ArrayList<>(peticiones.size());
+		for (Future<String> respuesta : hilos.invokeAll(peticiones)) {
+			respuestas.add(respuesta.get());
+		}
+		return respuestas;
+	}
+
+	private String get(String ruta) throws Exception {
+		HttpResponse<String> respuesta = http.send(
+				HttpRequest.newBuilder(URI.create("http://localhost:" + puerto + ruta)).GET().build(),
+				HttpResponse.BodyHandlers.ofString());
+		assertThat(respuesta.statusCode()).as(ruta).isEqualTo(200);
+		return respuesta.body();
+	}
+}
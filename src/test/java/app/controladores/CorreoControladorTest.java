@@ -0,0 +1,102 @@
+package app.controladores;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import app.entidades.Cliente06;
+import app.entidades.Correo06;
+import app.servicios.ServiciosCliente;
+import app.servicios.ServiciosCorreo;
+import jakarta.persistence.EntityManagerFactory;
+
+// Los listados de correos traen el cliente de cada correo en la misma consulta (join fetch):
+// una sola sentencia SQL por petición, sin importar cuántos correos y clientes haya (sin N+1).
+// Las sentencias se cuentan con las estadísticas de Hibernate (perfil "test"). El contexto
+// (y la base) se comparte con otros tests: los listados completos pueden traer más correos.
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class CorreoControladorTest {
+
+	private static final int CLIENTES = 20;
+	private static final int CORREOS_POR_CLIENTE = 3;
+
+	@Autowired
+	private MockMvc mockMvc;
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+	@Autowired
+	private ServiciosCliente serviciosCliente;
+	@Autowired
+	private ServiciosCorreo serviciosCorreo;
+	private Statistics estadisticas;
+
+	@BeforeAll
+	void cargarDatos() {
+		for (int i = 0; i < CLIENTES; i++) {
+			Cliente06 cliente = new Cliente06("L" + i, "Nombre" + i, "Apellido" + i);
+			serviciosCliente.guardar(cliente);
+			for (int j = 0; j < CORREOS_POR_CLIENTE; j++) {
+				serviciosCorreo.guardar(new Correo06("listado" + i + "." + j + "@prueba.com", cliente));
+			}
+		}
+		estadisticas = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+	}
+
+	@BeforeEach
+	void reiniciarEstadisticas() {
+		estadisticas.clear();
+	}
+
+	@Test
+	void listarTodosUsaUnaSentencia() throws Exception {
+		mockMvc.perform(get("/correos/listartodos"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.length()").value(greaterThanOrEqualTo(CLIENTES * CORREOS_POR_CLIENTE)))
+				.andExpect(jsonPath("$[0].cliente06.nombre").exists());
+		assertThat(estadisticas.getPrepareStatementCount()).isEqualTo(1);
+	}
+
+	@Test
+	void listarTodosPorDniUsaUnaSentencia() throws Exception {
+		mockMvc.perform(get("/correos/listartodos").param("buscarCorreoDni", "L1"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.length()").value(CORREOS_POR_CLIENTE))
+				.andExpect(jsonPath("$[0].cliente06.apellido").value("Apellido1"));
+		assertThat(estadisticas.getPrepareStatementCount()).isEqualTo(1);
+	}
+
+	@Test
+	void verClientesCorreosUsaUnaSentencia() throws Exception {
+		mockMvc.perform(get("/correos/verclientescorreos"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.length()").value(greaterThanOrEqualTo(CLIENTES * CORREOS_POR_CLIENTE)))
+				.andExpect(jsonPath("$[0].cliente06.nombre").exists());
+		assertThat(estadisticas.getPrepareStatementCount()).isEqualTo(1);
+	}
+
+	@Test
+	void verClientesCorreosPorDniUsaUnaSentencia() throws Exception {
+		mockMvc.perform(get("/correos/verclientescorreos").param("buscarClientesCorreosDNI", "L2"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.length()").value(CORREOS_POR_CLIENTE))
+				.andExpect(jsonPath("$[0].cliente06.nombre").value("Nombre2"));
+		assertThat(estadisticas.getPrepareStatementCount()).isEqualTo(1);
+	}
+}
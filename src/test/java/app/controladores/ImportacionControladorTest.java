@@ -0,0 +1,79 @@
+package app.controladores;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import app.entidades.Cliente06;
+import app.servicios.ServiciosCliente;
+
+// Importación masiva:
+// - Correos repetidos: se detectan sin distinguir mayúsculas, como la restricción unique de
+//   la columna, y no hacen fallar el lote.
+// - CSV: campos entre comillas con comas y comillas; las líneas mal formadas o con campos de
+//   más se informan como error en lugar de correr las columnas.
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class ImportacionControladorTest {
+
+	@Autowired
+	private MockMvc mockMvc;
+	@Autowired
+	private ServiciosCliente serviciosCliente;
+
+	@Test
+	void correosRepetidosConOtrasMayusculasSeInformanComoError() throws Exception {
+		mockMvc.perform(post("/importar/clientes").contentType("text/csv").content("dni,nombre,apellido\nI1,Ana,Paz\n"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.guardadas").value(1));
+		String correos = """
+				{"dni": "I1", "correo": "Importado@Prueba.com"}
+				{"dni": "I1", "correo": "importado@prueba.com"}
+				{"dni": "I1", "correo": "otro@prueba.com"}
+				""";
+		mockMvc.perform(post("/importar/correos").contentType(CorreoControlador.NDJSON).content(correos))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.guardadas").value(2))
+				.andExpect(jsonPath("$.conErrores").value(1))
+				.andExpect(jsonPath("$.errores[0].linea").value(2))
+				.andExpect(jsonPath("$.errores[0].mensaje").value("El correo ya existe: importado@prueba.com"));
+	}
+
+	@Test
+	void csvConComillasYLineasMalFormadas() throws Exception {
+		String clientes = """
+				dni,nombre,apellido
+				"Q1","Pérez, Juan","Gómez"
+				Q2, "Ana ""la"" Paz" ,Ruiz
+				Q3,Juan,Pérez, Otro
+				Q4,"Sin cerrar,Ruiz
+				Q5,Mal"comilla,Ruiz
+				Q6,Luis,
+				""";
+		mockMvc.perform(post("/importar/clientes").contentType("text/csv").content(clientes))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.leidas").value(6))
+				.andExpect(jsonPath("$.guardadas").value(2))
+				.andExpect(jsonPath("$.errores[0].linea").value(4))
+				.andExpect(jsonPath("$.errores[0].mensaje").value("CSV inválido: se esperaban 3 campos y hay 4."))
+				.andExpect(jsonPath("$.errores[1].linea").value(5))
+				.andExpect(jsonPath("$.errores[1].mensaje").value("CSV inválido: comillas sin cerrar o mal ubicadas."))
+				.andExpect(jsonPath("$.errores[2].linea").value(6))
+				.andExpect(jsonPath("$.errores[3].linea").value(7))
+				.andExpect(jsonPath("$.errores[3].mensaje").value("El campo apellido no es válido o está vacío."));
+		Cliente06 q1 = serviciosCliente.buscarPorId("Q1");
+		assertThat(q1.getNombre()).isEqualTo("Pérez, Juan");
+		assertThat(q1.getApellido()).isEqualTo("Gómez");
+		assertThat(serviciosCliente.buscarPorId("Q2").getNombre()).isEqualTo("Ana \"la\" Paz");
+		assertThat(serviciosCliente.buscarPorId("Q3")).isNull();
+	}
+}
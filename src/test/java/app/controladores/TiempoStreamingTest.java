@@ -0,0 +1,54 @@
+package app.controladores;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerAdapter;
+
+// Límite de tiempo de las peticiones asíncronas: finito para todas (spring.mvc.async.request-timeout)
+// y más largo solo para las respuestas en streaming (app.streaming.tiempo-maximo).
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class TiempoStreamingTest {
+
+	private static final long STREAMING_MS = Duration.ofMinutes(30).toMillis();
+
+	@Autowired
+	private MockMvc mockMvc;
+	@Autowired
+	private RequestMappingHandlerAdapter adaptador;
+
+	private long tiempo(MvcResult resultado) {
+		return resultado.getRequest().getAsyncContext().getTimeout();
+	}
+
+	@Test
+	void limiteGlobalFinito() {
+		assertThat((Long) ReflectionTestUtils.getField(adaptador, "asyncRequestTimeout")).isEqualTo(30_000L);
+	}
+
+	@Test
+	void listadosNdjsonYExportacionUsanElTiempoDeStreaming() throws Exception {
+		MvcResult listado = mockMvc.perform(get("/correos/listartodos").accept(CorreoControlador.NDJSON))
+				.andExpect(request().asyncStarted()).andReturn();
+		assertThat(tiempo(listado)).isEqualTo(STREAMING_MS);
+		MvcResult clientesCorreos = mockMvc.perform(get("/correos/verclientescorreos").accept(CorreoControlador.NDJSON))
+				.andExpect(request().asyncStarted()).andReturn();
+		assertThat(tiempo(clientesCorreos)).isEqualTo(STREAMING_MS);
+		MvcResult exportacion = mockMvc.perform(get("/exportar/clientescorreos"))
+				.andExpect(request().asyncStarted()).andReturn();
+		assertThat(tiempo(exportacion)).isEqualTo(STREAMING_MS);
+	}
+}
@@ -0,0 +1,69 @@
+package app.migraciones;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import app.entidades.Cliente06;
+import app.entidades.Correo06;
+import app.servicios.ServiciosCorreo;
+
+// Base creada por una versión anterior de la aplicación (ddl-auto=update, idCorreo con IDENTITY,
+// sin índices ni correo_secuencia): Flyway la registra como V1 (baseline), aplica V2 y V3,
+// la validación de Hibernate acepta el esquema y los correos nuevos siguen después de los existentes.
+@SpringBootTest
+@ActiveProfiles("test")
+class MigracionesTest {
+
+	private static final String URL = "jdbc:h2:mem:anterior-" + UUID.randomUUID() + ";MODE=MySQL;DB_CLOSE_DELAY=-1";
+
+	@DynamicPropertySource
+	static void baseAnterior(DynamicPropertyRegistry propiedades) throws SQLException {
+		try (Connection conexion = DriverManager.getConnection(URL, "sa", "");
+				Statement sentencia = conexion.createStatement()) {
+			sentencia.execute("create table cliente (dni varchar(10) not null, apellido varchar(50) not null, "
+					+ "nombre varchar(50) not null, primary key (dni))");
+			sentencia.execute("create table correo (id_correo integer not null auto_increment, "
+					+ "cliente06dnifk varchar(10) not null, correo varchar(100) not null, primary key (id_correo))");
+			sentencia.execute("insert into cliente (dni, apellido, nombre) values ('V1', 'Vieja', 'Vera')");
+			sentencia.execute("insert into correo (id_correo, cliente06dnifk, correo) values (500, 'V1', 'vera@anterior.com')");
+		}
+		propiedades.add("spring.datasource.url", () -> URL);
+	}
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+	@Autowired
+	private ServiciosCorreo serviciosCorreo;
+
+	@Test
+	void baselineAplicaV2yV3() {
+		assertThat(jdbcTemplate.queryForList(
+				"select \"version\" from \"flyway_schema_history\" where \"success\" and \"version\" is not null order by \"installed_rank\"",
+				String.class)).containsExactly("1", "2", "3");
+		// SecuenciaCorreoConfig ya la ajustó por encima del idCorreo existente
+		assertThat(jdbcTemplate.queryForObject("select siguiente from correo_secuencia where nombre = 'correo'",
+				Long.class)).isGreaterThan(500L);
+	}
+
+	@Test
+	void correosNuevosNoChocanConLosAnteriores() {
+		Correo06 correo = new Correo06("nuevo@anterior.com", new Cliente06("V1", null, null));
+		serviciosCorreo.guardar(correo);
+		assertThat(correo.getIdCorreo()).isGreaterThan(500);
+		assertThat(jdbcTemplate.queryForObject("select count(*) from correo where cliente06dnifk = 'V1'",
+				Integer.class)).isEqualTo(2);
+	}
+}
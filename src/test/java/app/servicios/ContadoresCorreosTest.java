@@ -0,0 +1,116 @@
+package app.servicios;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import app.dto.Cantidad;
+import app.dto.EstadisticasCorreos;
+import app.eventos.CambioCorreo;
+import app.eventos.CambioCorreo.Tipo;
+
+// Contadores por dni y por dominio mantenidos con los cambios que aplica IndiceCorreos (sin
+// Spring ni base): altas, modificaciones (de dirección, de dominio o de cliente), bajas por
+// idCorreo y el resumen.
+class ContadoresCorreosTest {
+
+	private ContadoresCorreos contadores;
+	private IndiceCorreos indice;
+
+	@BeforeEach
+	void crear() {
+		contadores = new ContadoresCorreos();
+		ReflectionTestUtils.setField(contadores, "top", 2);
+		indice = new IndiceCorreos();
+		ReflectionTestUtils.setField(indice, "observadores", List.of(contadores));
+	}
+
+	private void cambio(Tipo tipo, int idCorreo, String correo, String dni) {
+		indice.alCambiarCorreo(new CambioCorreo(tipo, idCorreo, correo, dni));
+	}
+
+	@Test
+	void altasSumanPorDniYPorDominio() {
+		cambio(Tipo.ALTA, 1, "ana@uno.com", "A");
+		cambio(Tipo.ALTA, 2, "ana@Dos.com", "A");
+		cambio(Tipo.ALTA, 3, "beto@UNO.com", "B");
+
+		assertThat(contadores.cantidadPorDni("A")).isEqualTo(2);
+		assertThat(contadores.cantidadPorDni("B")).isEqualTo(1);
+		assertThat(contadores.cantidadPorDni("Z")).isZero();
+		assertThat(contadores.cantidadPorDominio("uno.com")).isEqualTo(2);
+		assertThat(contadores.cantidadPorDominio("DOS.COM")).isEqualTo(1);
+		assertThat(indice.dni(3)).isEqualTo("B");
+		assertThat(indice.dni(4)).isNull();
+	}
+
+	@Test
+	void modificacionRestaElValorAnterior() {
+		cambio(Tipo.ALTA, 1, "ana@uno.com", "A");
+		// Solo cambia la dirección (sin dni): conserva el cliente
+		cambio(Tipo.MODIFICACION, 1, "ana@dos.com", null);
+		assertThat(contadores.cantidadPorDominio("uno.com")).isZero();
+		assertThat(contadores.cantidadPorDominio("dos.com")).isEqualTo(1);
+		assertThat(contadores.cantidadPorDni("A")).isEqualTo(1);
+		assertThat(indice.dni(1)).isEqualTo("A");
+
+		// Cambia de cliente
+		cambio(Tipo.MODIFICACION, 1, "ana@dos.com", "B");
+		assertThat(contadores.cantidadPorDni("A")).isZero();
+		assertThat(contadores.cantidadPorDni("B")).isEqualTo(1);
+		assertThat(contadores.cantidadPorDominio("dos.com")).isEqualTo(1);
+	}
+
+	@Test
+	void bajaPorIdRestaYQuitaLasClavesVacias() {
+		cambio(Tipo.ALTA, 1, "ana@uno.com", "A");
+		cambio(Tipo.ALTA, 2, "ana@dos.com", "A");
+		cambio(Tipo.BAJA, 1, null, null);
+		assertThat(contadores.cantidadPorDni("A")).isEqualTo(1);
+		assertThat(contadores.cantidadPorDominio("uno.com")).isZero();
+		assertThat(indice.dni(1)).isNull();
+
+		cambio(Tipo.BAJA, 2, null, null);
+		cambio(Tipo.BAJA, 2, null, null); // Repetida: sin efecto
+		assertThat(contadores.cantidadPorDni("A")).isZero();
+		EstadisticasCorreos resumen = contadores.resumen();
+		assertThat(resumen.getTotalCorreos()).isZero();
+		assertThat(resumen.getClientesConCorreos()).isZero();
+		assertThat(resumen.getDominios()).isZero();
+	}
+
+	@Test
+	void resumenConLosMayoresYRearmadoDespuesDeUnCambio() {
+		cambio(Tipo.ALTA, 1, "a1@uno.com", "A");
+		cambio(Tipo.ALTA, 2, "a2@uno.com", "A");
+		cambio(Tipo.ALTA, 3, "a3@dos.com", "A");
+		cambio(Tipo.ALTA, 4, "b1@dos.com", "B");
+		cambio(Tipo.ALTA, 5, "b2@tres.com", "B");
+		cambio(Tipo.ALTA, 6, "c1@uno.com", "C");
+
+		EstadisticasCorreos resumen = contadores.resumen();
+		assertThat(resumen.getTotalCorreos()).isEqualTo(6);
+		assertThat(resumen.getClientesConCorreos()).isEqualTo(3);
+		assertThat(resumen.getDominios()).isEqualTo(3);
+		assertThat(resumen.getTopClientes()).extracting(Cantidad::getClave, Cantidad::getCantidad)
+				.containsExactly(tuple("A", 3), tuple("B", 2));
+		assertThat(resumen.getTopDominios()).extracting(Cantidad::getClave, Cantidad::getCantidad)
+				.containsExactly(tuple("uno.com", 3), tuple("dos.com", 2));
+		assertThat(contadores.resumen()).isSameAs(resumen); // Sin cambios se reutiliza
+
+		cambio(Tipo.BAJA, 1, null, null);
+		cambio(Tipo.BAJA, 2, null, null);
+		EstadisticasCorreos nuevo = contadores.resumen();
+		assertThat(nuevo).isNotSameAs(resumen);
+		// Empate en cantidad: primero la clave menor
+		assertThat(nuevo.getTopClientes()).extracting(Cantidad::getClave, Cantidad::getCantidad)
+				.containsExactly(tuple("B", 2), tuple("A", 1));
+		assertThat(nuevo.getTopDominios()).extracting(Cantidad::getClave, Cantidad::getCantidad)
+				.containsExactly(tuple("dos.com", 2), tuple("tres.com", 1));
+	}
+}
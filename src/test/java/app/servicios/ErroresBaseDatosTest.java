@@ -0,0 +1,55 @@
+package app.servicios;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import app.entidades.Cliente06;
+import app.entidades.Correo06;
+
+// Errores reales de la base (unique y clave foránea) convertidos en mensajes fijos, sin el
+// mensaje del driver (SQL, nombres de restricciones).
+@SpringBootTest
+@ActiveProfiles("test")
+class ErroresBaseDatosTest {
+
+	@Autowired
+	private ServiciosCliente serviciosCliente;
+	@Autowired
+	private ServiciosCorreo serviciosCorreo;
+
+	private Throwable guardarCorreo(String dni, String correo) {
+		Cliente06 cliente = new Cliente06();
+		cliente.setDni(dni);
+		return catchThrowable(() -> serviciosCorreo.guardarLote(List.of(new Correo06(correo, cliente))));
+	}
+
+	@Test
+	void correoDuplicado() {
+		serviciosCliente.guardar(new Cliente06("E1", "Eva", "Errores"));
+		assertThat(guardarCorreo("E1", "duplicado@errores.com")).isNull();
+		Throwable error = guardarCorreo("E1", "duplicado@errores.com");
+		assertThat(ErroresBaseDatos.motivo(error)).isEqualTo(ErroresBaseDatos.Motivo.DUPLICADO);
+		assertThat(ErroresBaseDatos.mensajeCorreo(error)).isEqualTo("Correo duplicado.");
+	}
+
+	@Test
+	void clienteInexistente() {
+		Throwable error = guardarCorreo("NOEXISTE", "huerfano@errores.com");
+		assertThat(ErroresBaseDatos.motivo(error)).isEqualTo(ErroresBaseDatos.Motivo.REFERENCIA_INEXISTENTE);
+		assertThat(ErroresBaseDatos.mensajeCorreo(error)).isEqualTo("Cliente inexistente.");
+	}
+
+	@Test
+	void clienteDuplicado() {
+		serviciosCliente.guardar(new Cliente06("E2", "Eli", "Errores"));
+		Throwable error = catchThrowable(() -> serviciosCliente.guardarLote(List.of(new Cliente06("E2", "Eli", "Otra"))));
+		assertThat(ErroresBaseDatos.mensajeCliente(error)).isEqualTo("Cliente duplicado.");
+	}
+}
@@ -0,0 +1,207 @@
+package app.servicios;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.util.unit.DataSize;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import app.eventos.CambioCliente;
+import app.eventos.CambioCorreo;
+import app.excepciones.ErrorControlado;
+
+// Registro de cambios sobre una carpeta temporal (sin Spring): agregar y leer desde una
+// secuencia, rotación de segmentos con retención, 410 para los cambios que ya no están y
+// recuperación al reiniciar. Los cambios de correos pasan por IndiceCorreos, que entrega al
+// registro los valores anteriores, como con los listeners de Spring.
+class RegistroCambiosTest {
+
+	// Segmentos de 1MB (el mínimo) con líneas de unos 10KB: unas 100 líneas por segmento
+	private static final String NOMBRE_LARGO = "n".repeat(10_000);
+
+	@TempDir
+	private Path carpeta;
+
+	private final ObjectMapper objectMapper = new ObjectMapper();
+	private final IndiceCorreos indiceCorreos = new IndiceCorreos();
+	private RegistroCambios registro;
+
+	@BeforeEach
+	void abrir() throws IOException {
+		registro = nuevoRegistro();
+	}
+
+	private RegistroCambios nuevoRegistro() throws IOException {
+		RegistroCambios nuevo = new RegistroCambios();
+		ReflectionTestUtils.setField(nuevo, "objectMapper", objectMapper);
+		ReflectionTestUtils.setField(nuevo, "directorio", carpeta.toString());
+		ReflectionTestUtils.setField(nuevo, "tamanioSegmento", DataSize.ofMegabytes(1));
+		ReflectionTestUtils.setField(nuevo, "segmentosRetenidos", 2);
+		nuevo.abrir();
+		ReflectionTestUtils.setField(indiceCorreos, "observadores", List.of(nuevo));
+		return nuevo;
+	}
+
+	private void correo(CambioCorreo.Tipo tipo, int idCorreo, String correo, String dni) {
+		CambioCorreo cambio = new CambioCorreo(tipo, idCorreo, correo, dni);
+		indiceCorreos.alCambiarCorreo(cambio);
+	}
+
+	private void clientes(int cantidad) {
+		for (int i = 0; i < cantidad; i++) {
+			registro.alCambiarCliente(new CambioCliente(CambioCliente.Tipo.ALTA, "D" + i, NOMBRE_LARGO, "Apellido"));
+		}
+	}
+
+	private List<JsonNode> lineas(ByteBuffer tramo) throws IOException {
+		List<JsonNode> lineas = new ArrayList<>();
+		for (String linea : StandardCharsets.UTF_8.decode(tramo).toString().split("\n")) {
+			if (!linea.isEmpty()) {
+				lineas.add(objectMapper.readTree(linea));
+			}
+		}
+		return lineas;
+	}
+
+	// Secuencias posteriores a "desde", pidiendo tramos como un consumidor
+	private List<Long> secuenciasDesde(long desde) throws IOException {
+		List<Long> secuencias = new ArrayList<>();
+		long posicion = desde;
+		while (posicion < registro.ultimaSecuencia()) {
+			for (JsonNode linea : lineas(registro.leer(posicion, 1000))) {
+				posicion = linea.get("secuencia").asLong();
+				secuencias.add(posicion);
+			}
+		}
+		return secuencias;
+	}
+
+	private long segmentos() throws IOException {
+		try (Stream<Path> archivos = Files.list(carpeta)) {
+			return archivos.filter(archivo -> archivo.getFileName().toString().startsWith("cambios-")).count();
+		}
+	}
+
+	private static List<Long> rango(long primera, long ultima) {
+		return LongStream.rangeClosed(primera, ultima).boxed().toList();
+	}
+
+	@Test
+	void agregaYLeeLosCambiosConLosValoresAnteriores() throws IOException {
+		registro.alCambiarCliente(new CambioCliente(CambioCliente.Tipo.ALTA, "A1", "Ana", "Uno"));
+		correo(CambioCorreo.Tipo.ALTA, 7, "ana@uno.com", "A1");
+		correo(CambioCorreo.Tipo.MODIFICACION, 7, "ana@dos.com", null);
+		correo(CambioCorreo.Tipo.BAJA, 7, null, null);
+
+		assertThat(registro.ultimaSecuencia()).isEqualTo(4);
+		List<JsonNode> cambios = lineas(registro.leer(0, 10));
+		assertThat(cambios).extracting(cambio -> cambio.get("secuencia").asLong()).containsExactly(1L, 2L, 3L, 4L);
+		assertThat(cambios.get(0).get("entidad").asText()).isEqualTo("cliente");
+		assertThat(cambios.get(0).get("nombre").asText()).isEqualTo("Ana");
+		JsonNode modificacion = cambios.get(2);
+		assertThat(modificacion.get("tipo").asText()).isEqualTo("MODIFICACION");
+		assertThat(modificacion.get("correoAnterior").asText()).isEqualTo("ana@uno.com");
+		assertThat(modificacion.get("correo").asText()).isEqualTo("ana@dos.com");
+		assertThat(modificacion.get("dni").asText()).isEqualTo("A1"); // Conserva el cliente
+		JsonNode baja = cambios.get(3);
+		assertThat(baja.get("correoAnterior").asText()).isEqualTo("ana@dos.com");
+		assertThat(baja.get("dniAnterior").asText()).isEqualTo("A1");
+		assertThat(baja.has("correo")).isFalse();
+	}
+
+	@Test
+	void cambiosConcurrentesDeUnCorreoEncadenanLosValoresAnteriores() throws Exception {
+		correo(CambioCorreo.Tipo.ALTA, 9, "c0@uno.com", "A1");
+		// Dos hilos modifican el mismo correo a la vez: cada cambio registrado parte del anterior
+		Thread[] hilos = new Thread[2];
+		for (int h = 0; h < hilos.length; h++) {
+			int hilo = h;
+			hilos[h] = Thread.ofPlatform().start(() -> {
+				for (int i = 0; i < 200; i++) {
+					correo(CambioCorreo.Tipo.MODIFICACION, 9, "c" + hilo + "-" + i + "@uno.com", null);
+				}
+			});
+		}
+		for (Thread hilo : hilos) {
+			hilo.join();
+		}
+
+		List<JsonNode> cambios = lineas(registro.leer(0, 1000));
+		assertThat(cambios).hasSize(401);
+		for (int i = 1; i < cambios.size(); i++) {
+			assertThat(cambios.get(i).get("correoAnterior").asText()).isEqualTo(cambios.get(i - 1).get("correo").asText());
+		}
+		assertThat(cambios.getLast().get("correo").asText()).isEqualTo(indiceCorreos.correo(9));
+	}
+
+	@Test
+	void leeDesdeUnaSecuenciaConLimite() throws IOException {
+		clientes(5);
+		assertThat(lineas(registro.leer(2, 2))).extracting(cambio -> cambio.get("secuencia").asLong())
+				.containsExactly(3L, 4L);
+		assertThat(registro.leer(5, 10).hasRemaining()).isFalse(); // Sin cambios nuevos
+		assertThat(registro.leer(2, 0).hasRemaining()).isFalse();
+		assertThatThrownBy(() -> registro.leer(6, 10)).isSameAs(ErrorControlado.CAMBIOS_NO_DISPONIBLES);
+	}
+
+	@Test
+	void rotacionConservaLosSegmentosRetenidos() throws IOException {
+		clientes(150);
+		assertThat(segmentos()).isEqualTo(2);
+		// Todavía se reproduce desde el principio (el primer segmento sigue retenido)
+		assertThat(secuenciasDesde(0)).isEqualTo(rango(1, 150));
+
+		clientes(200);
+		assertThat(segmentos()).isEqualTo(2);
+		long ultima = registro.ultimaSecuencia();
+		assertThat(ultima).isEqualTo(350);
+		// El primer segmento se borró: 410, el consumidor vuelve a leer las tablas
+		assertThatThrownBy(() -> registro.leer(0, 10)).isSameAs(ErrorControlado.CAMBIOS_NO_DISPONIBLES);
+		// Desde un cambio del segmento anterior al actual se reproduce sin huecos
+		long desde = ultima - 120;
+		assertThat(secuenciasDesde(desde)).isEqualTo(rango(desde + 1, ultima));
+	}
+
+	@Test
+	void alReiniciarSigueDesdeLaUltimaLineaCompleta() throws IOException {
+		clientes(150);
+		// Línea a medio escribir al final del segmento actual (la aplicación se detuvo)
+		Path actual;
+		try (Stream<Path> archivos = Files.list(carpeta)) {
+			actual = archivos.max(Path::compareTo).orElseThrow();
+		}
+		byte[] datos = Files.readAllBytes(actual);
+		int fin = 0;
+		while (datos[fin] != 0) {
+			fin++;
+		}
+		try (FileChannel canal = FileChannel.open(actual, StandardOpenOption.WRITE)) {
+			canal.write(ByteBuffer.wrap("{\"secuencia\":151,\"ent".getBytes(StandardCharsets.UTF_8)), fin);
+		}
+
+		registro = nuevoRegistro();
+		assertThat(registro.ultimaSecuencia()).isEqualTo(150);
+		assertThat(secuenciasDesde(0)).isEqualTo(rango(1, 150)); // Los dos segmentos retenidos
+		clientes(1);
+		assertThat(lineas(registro.leer(150, 10))).extracting(cambio -> cambio.get("secuencia").asLong())
+				.containsExactly(151L);
+	}
+}
@@ -0,0 +1,68 @@
+package app.servicios;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Map;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import app.entidades.Cliente06;
+import jakarta.persistence.EntityManagerFactory;
+
+// Actualización y borrado de clientes en una sola sentencia (@Modifying), sin leer la entidad
+// antes. Las sentencias se cuentan con las estadísticas de Hibernate (perfil "test").
+@SpringBootTest
+@ActiveProfiles("test")
+class ServiciosClienteTest {
+
+	@Autowired
+	private ServiciosCliente serviciosCliente;
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+	private Statistics estadisticas;
+
+	@BeforeEach
+	void iniciar() {
+		estadisticas = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+	}
+
+	private void nuevoCliente(String dni) {
+		serviciosCliente.guardar(new Cliente06(dni, "Nombre", "Apellido"));
+		estadisticas.clear();
+	}
+
+	@Test
+	void actualizarDatosUsaUnaSentencia() {
+		nuevoCliente("U1");
+		assertThat(serviciosCliente.actualizarDatos("U1", "Lucía", "Gómez")).isTrue();
+		assertThat(estadisticas.getPrepareStatementCount()).isEqualTo(1);
+		Map<String, Object> fila = jdbcTemplate.queryForMap("select nombre, apellido from cliente where dni = 'U1'");
+		assertThat(fila.get("nombre")).isEqualTo("Lucía");
+		assertThat(fila.get("apellido")).isEqualTo("Gómez");
+	}
+
+	@Test
+	void borrarPorDniUsaUnaSentencia() {
+		nuevoCliente("U2");
+		assertThat(serviciosCliente.borrarPorDni("U2")).isTrue();
+		assertThat(estadisticas.getPrepareStatementCount()).isEqualTo(1);
+		assertThat(serviciosCliente.existePorId("U2")).isFalse();
+	}
+
+	@Test
+	void eliminarPorIdBorraEnUnaTransaccion() {
+		nuevoCliente("U3");
+		serviciosCliente.eliminarPorId("U3");
+		assertThat(estadisticas.getPrepareStatementCount()).isEqualTo(1);
+		assertThat(serviciosCliente.existePorId("U3")).isFalse();
+	}
+}
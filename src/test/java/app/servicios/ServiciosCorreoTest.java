@@ -0,0 +1,90 @@
+package app.servicios;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import app.entidades.Cliente06;
+import app.entidades.Correo06;
+import jakarta.persistence.EntityManagerFactory;
+
+// Actualización y borrado de correos en una sola sentencia (@Modifying), sin leer la entidad
+// antes. Las sentencias se cuentan con las estadísticas de Hibernate (perfil "test").
+@SpringBootTest
+@ActiveProfiles("test")
+class ServiciosCorreoTest {
+
+	@Autowired
+	private ServiciosCorreo serviciosCorreo;
+	@Autowired
+	private ServiciosCliente serviciosCliente;
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+	private Statistics estadisticas;
+	private Cliente06 cliente;
+
+	@BeforeEach
+	void iniciar() {
+		estadisticas = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		cliente = serviciosCliente.buscarPorId("M1");
+		if (cliente == null) {
+			cliente = new Cliente06("M1", "Marta", "Ruiz");
+			serviciosCliente.guardar(cliente);
+		}
+	}
+
+	private int nuevoCorreo(String correo) {
+		Correo06 nuevo = new Correo06(correo, cliente);
+		serviciosCorreo.guardar(nuevo);
+		estadisticas.clear();
+		return nuevo.getIdCorreo();
+	}
+
+	private String correoGuardado(int id) {
+		return jdbcTemplate.queryForList("select correo from correo where id_correo = ?", String.class, id).stream()
+				.findFirst().orElse(null);
+	}
+
+	@Test
+	void actualizarCorreoUsaUnaSentencia() {
+		int id = nuevoCorreo("antes@modificar.com");
+		assertThat(serviciosCorreo.actualizarCorreo(id, "despues@modificar.com", "M1")).isTrue();
+		assertThat(estadisticas.getPrepareStatementCount()).isEqualTo(1);
+		assertThat(correoGuardado(id)).isEqualTo("despues@modificar.com");
+	}
+
+	@Test
+	void actualizarCorreoInexistenteDevuelveFalse() {
+		estadisticas.clear();
+		assertThat(serviciosCorreo.actualizarCorreo(999999, "nadie@modificar.com", "M1")).isFalse();
+		assertThat(estadisticas.getPrepareStatementCount()).isEqualTo(1);
+	}
+
+	@Test
+	void borrarPorIdUsaUnaSentencia() {
+		int id = nuevoCorreo("borrar@modificar.com");
+		assertThat(serviciosCorreo.borrarPorId(id)).isTrue();
+		assertThat(estadisticas.getPrepareStatementCount()).isEqualTo(1);
+		assertThat(correoGuardado(id)).isNull();
+		assertThat(serviciosCorreo.borrarPorId(id)).isFalse();
+	}
+
+	// eliminarPorId(String) llama a los métodos int sin pasar por el proxy: la transacción
+	// que necesita el DELETE debe empezar en el propio método
+	@Test
+	void eliminarPorIdConTextoBorraEnUnaTransaccion() {
+		int id = nuevoCorreo("eliminar@modificar.com");
+		serviciosCorreo.eliminarPorId(String.valueOf(id));
+		assertThat(estadisticas.getPrepareStatementCount()).isEqualTo(1);
+		assertThat(correoGuardado(id)).isNull();
+	}
+}